@@ -0,0 +1,84 @@
+package com.excellia.service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.excellia.dto.ApiConfig;
+
+// DynamicApiCallerService.callApi end to end (plan lookup, binding, upstream call over loopback, response
+// deserialization) against an in-process stub, through the generated client or the interpreter. throughput reports
+// calls/s; latency reports the p50-p99.99 distribution. Add threads with -t to load the shared client and
+// connection pool concurrently.
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CallApiBenchmark {
+
+    @Param({"get", "post"})
+    public String method;
+
+    @Param({"256", "65536"})
+    public int responseBytes;
+
+    @Param({"generated", "interpreted"})
+    public String engine;
+
+    private StubUpstream upstream;
+    private GeneratedClientFixture fixture;
+    private DynamicApiCallerService callerService;
+    private ApiConfig request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        upstream = StubUpstream.start(responseBytes);
+        fixture = GeneratedClientFixture.create();
+        fixture.generate(GeneratedClientFixture.config(upstream.url("/api"), 1));
+        callerService = fixture.callerService(new RequestLog(0.01, Set.of()));
+
+        request = new ApiConfig();
+        request.setOperationId("resource0_" + method.toUpperCase(Locale.ROOT));
+        request.setMethod(method);
+        request.setEngine(engine);
+        request.setQueryParams(Map.of("id", "42", "limit", "10", "offset", "0"));
+        request.setBodies(Map.of("post", Map.of("name", "item", "count", 3, "tags", List.of("a"),
+                "owner", Map.of("id", 1, "email", "owner@example.com"))));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        upstream.close();
+        fixture.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Object throughput() {
+        return callerService.callApi(request);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object latency() {
+        return callerService.callApi(request);
+    }
+}
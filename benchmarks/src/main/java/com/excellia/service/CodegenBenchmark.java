@@ -0,0 +1,71 @@
+package com.excellia.service;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.excellia.dto.ApiConfig;
+
+// One codegen run through OpenApiCodeGenLibraryService per invocation, each for a spec not generated before:
+// into a fresh directory, or into the shared workspace of the spec's lineage, where only the operation that
+// changed since the previous version is rewritten.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CodegenBenchmark {
+
+    @Param({"1", "20", "100"})
+    public int paths;
+
+    @Param({"lean", "full"})
+    public String profile;
+
+    @Param({"fresh", "incremental"})
+    public String workspace;
+
+    private GeneratedClientFixture fixture;
+    private ApiConfig config;
+    private SpecDocument spec;
+    private int version;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = GeneratedClientFixture.create(profile);
+        config = GeneratedClientFixture.config("http://127.0.0.1:9/bench", paths);
+    }
+
+    // A new query parameter on the first operation makes a new spec, outside the measured time
+    @Setup(Level.Invocation)
+    public void nextSpec() throws Exception {
+        config.getPaths().get(0).setQueryParams(Map.of("limit", "10", "v" + version++, "1"));
+        spec = fixture.generatorService().buildSpec(config);
+        fixture.generatorService().writeSpec(spec);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public SpecDocument generate() {
+        fixture.codeGenService().generateCode(spec, "incremental".equals(workspace) ? config.getUrl() : null);
+        return spec;
+    }
+}
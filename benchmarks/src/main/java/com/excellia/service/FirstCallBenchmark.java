@@ -0,0 +1,85 @@
+package com.excellia.service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.excellia.dto.ApiConfig;
+
+// From a stored spec to the first response of one of its operations, for a spec not seen before: codegen, compile,
+// load and call for the generated engine; parse and call for the interpreted one. CallApiBenchmark has the
+// steady-state side of the comparison.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FirstCallBenchmark {
+
+    @Param({"generated", "interpreted"})
+    public String engine;
+
+    @Param({"1", "20"})
+    public int paths;
+
+    private StubUpstream upstream;
+    private GeneratedClientFixture fixture;
+    private DynamicApiCallerService callerService;
+    private ApiConfig config;
+    private ApiConfig request;
+    private SpecDocument spec;
+    private int version;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        upstream = StubUpstream.start(256);
+        fixture = GeneratedClientFixture.create();
+        callerService = fixture.callerService(new RequestLog(0.01, Set.of()));
+        config = GeneratedClientFixture.config(upstream.url("/api"), paths);
+
+        request = new ApiConfig();
+        request.setOperationId("resource0_GET");
+        request.setMethod("get");
+        request.setQueryParams(Map.of("id", "42", "limit", "10", "offset", "0"));
+    }
+
+    // A new query parameter on the first operation makes a new spec, written outside the measured time
+    @Setup(Level.Invocation)
+    public void nextSpec() throws Exception {
+        config.getPaths().get(0).setQueryParams(Map.of("limit", "10", "v" + version++, "1"));
+        spec = fixture.generatorService().buildSpec(config);
+        fixture.generatorService().writeSpec(spec);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        upstream.close();
+        fixture.close();
+    }
+
+    @Benchmark
+    public Object firstCall() {
+        ExecutionEngine selected = ExecutionEngine.valueOf(engine.toUpperCase(Locale.ROOT));
+        if (selected == ExecutionEngine.GENERATED) {
+            fixture.codeGenService().generateCode(spec, null);
+        }
+        callerService.registerSpec(spec.specHash(), selected);
+        return callerService.callApi(request);
+    }
+}
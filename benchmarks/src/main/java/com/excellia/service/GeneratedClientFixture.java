@@ -0,0 +1,119 @@
+package com.excellia.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import com.excellia.dto.ApiConfig;
+import com.excellia.dto.PathConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.observation.ObservationRegistry;
+
+// Wires the generation services by hand against a throwaway cache directory.
+final class GeneratedClientFixture implements AutoCloseable {
+
+    private final Path workDir;
+    private final OpenApiGeneratorService generatorService;
+    private final OpenApiCodeGenLibraryService codeGenService;
+    private final GeneratedClientRegistry registry;
+
+    private GeneratedClientFixture(Path workDir, String codegenProfile, JsonBodies jsonBodies) {
+        this.workDir = workDir;
+        GeneratedClientCache cache = new GeneratedClientCache(workDir.toString(), 100, 1024);
+        this.generatorService = new OpenApiGeneratorService(new OpenApiSpecBuilder(), cache);
+        this.codeGenService = new OpenApiCodeGenLibraryService(cache, codegenProfile, List.of());
+        this.registry = new GeneratedClientRegistry(cache, new GeneratedClientCompiler(cache), new ObjectMapper(), new JdkClientHttpRequestFactory(), jsonBodies, 100);
+    }
+
+    static GeneratedClientFixture create() throws IOException {
+        return create("lean");
+    }
+
+    static GeneratedClientFixture create(String codegenProfile) throws IOException {
+        return create(codegenProfile, new JsonBodies(true, 64));
+    }
+
+    static GeneratedClientFixture create(String codegenProfile, JsonBodies jsonBodies) throws IOException {
+        return new GeneratedClientFixture(Files.createTempDirectory("excellia-bench"), codegenProfile, jsonBodies);
+    }
+
+    static ApiConfig config(String url, String operationId, String... methods) {
+        ApiConfig config = new ApiConfig();
+        config.setUrl(url);
+        config.setOperationId(operationId);
+        config.setMethods(List.of(methods));
+        config.setQueryParams(Map.of("id", "1"));
+        return config;
+    }
+
+    // One templated path per resource, each with a GET and a POST whose sample body becomes a generated model
+    static ApiConfig config(String url, int paths) {
+        ApiConfig config = new ApiConfig();
+        config.setUrl(url);
+        List<PathConfig> pathConfigs = new ArrayList<>(paths);
+        for (int i = 0; i < paths; i++) {
+            PathConfig path = new PathConfig();
+            path.setPath("/resource" + i + "/{id}");
+            path.setOperationId("resource" + i);
+            path.setMethods(List.of("get", "post"));
+            path.setQueryParams(Map.of("limit", "10", "offset", "0"));
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("name", "item" + i);
+            body.put("count", 1);
+            body.put("tags", List.of("a", "b"));
+            body.put("owner", Map.of("id", 1, "email", "owner@example.com"));
+            path.setBodies(Map.of("post", body));
+            pathConfigs.add(path);
+        }
+        config.setPaths(pathConfigs);
+        return config;
+    }
+
+    String generate(ApiConfig config) throws IOException {
+        String specHash = generatorService.generateFromConfig(config);
+        codeGenService.generateCode(specHash);
+        registry.register(specHash);
+        return specHash;
+    }
+
+    // Stores the spec and registers it for the interpreted engine only; no code is generated
+    String generateInterpreted(ApiConfig config) throws IOException {
+        String specHash = generatorService.generateFromConfig(config);
+        registry.registerInterpreted(specHash);
+        return specHash;
+    }
+
+    OpenApiGeneratorService generatorService() {
+        return generatorService;
+    }
+
+    OpenApiCodeGenLibraryService codeGenService() {
+        return codeGenService;
+    }
+
+    GeneratedClientRegistry registry() {
+        return registry;
+    }
+
+    // Without response caching or metrics, so only the invocation path itself is measured; the default resilience
+    // policy stays on, as it is part of every call
+    DynamicApiCallerService callerService(RequestLog requestLog) {
+        return new DynamicApiCallerService(registry, new UpstreamResponseCache(false, 0, 0, Set.of()),
+                ObservationRegistry.NOOP, requestLog, new UpstreamResilience(new StandardEnvironment()),
+                new RateLimiter(new StandardEnvironment()));
+    }
+
+    @Override
+    public void close() {
+        GeneratedClientCache.deleteDirectory(workDir);
+    }
+}
@@ -0,0 +1,58 @@
+package com.excellia.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Per-call client setup cost: building the client on every /execute versus looking up the shared one.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratedClientInitBenchmark {
+
+    private static final String OPERATION_ID = "benchOperation_GET";
+
+    private GeneratedClientFixture fixture;
+    private ClassLoader classLoader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = GeneratedClientFixture.create();
+        fixture.generate(GeneratedClientFixture.config("http://localhost:9/bench", "benchOperation", "get"));
+        classLoader = fixture.registry().resolve(OPERATION_ID).getApiClientClass().getClassLoader();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    // What every /execute did before clients were shared
+    @Benchmark
+    public Object perRequestInitialization() throws Exception {
+        Class<?> apiClientClass = Class.forName(GeneratedClient.API_CLIENT_CLASS, true, classLoader);
+        Object apiClient = apiClientClass.getConstructor().newInstance();
+        apiClientClass.getMethod("setDebugging", boolean.class).invoke(apiClient, true);
+        Class<?> defaultApiClass = Class.forName(GeneratedClient.DEFAULT_API_CLASS, true, classLoader);
+        return defaultApiClass.getConstructor(apiClientClass).newInstance(apiClient);
+    }
+
+    @Benchmark
+    public Object sharedClientLookup() {
+        return fixture.registry().resolve(OPERATION_ID).getPlan(OPERATION_ID, ExecutionEngine.GENERATED);
+    }
+}
@@ -0,0 +1,96 @@
+package com.excellia.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.excellia.dto.ApiConfig;
+
+// POST /execute with a body of `items` records (about 90 bytes of JSON each) to an operation whose sample body became
+// a generated model. Run with -prof gc: gc.alloc.rate.norm is the bytes allocated per call.
+//   bound - the body is bound to the generated model, then the model is serialized (excellia.body.bind-models=true)
+//   raw   - the body is serialized as sent, without the model (bind-models=false)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestBodyBenchmark {
+
+    @Param({"10", "1000"})
+    public int items;
+
+    @Param({"bound", "raw"})
+    public String binding;
+
+    @Param({"generated", "interpreted"})
+    public String engine;
+
+    private StubUpstream upstream;
+    private GeneratedClientFixture fixture;
+    private DynamicApiCallerService callerService;
+    private ApiConfig request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        upstream = StubUpstream.start(64);
+        fixture = GeneratedClientFixture.create("lean", new JsonBodies("bound".equals(binding), 64));
+        ApiConfig config = GeneratedClientFixture.config(upstream.url("/orders"), "orders", "post");
+        config.setBodies(Map.of("post", body(1)));
+        fixture.generate(config);
+        callerService = fixture.callerService(new RequestLog(0, Set.of()));
+
+        request = new ApiConfig();
+        request.setOperationId("orders_POST");
+        request.setMethod("post");
+        request.setEngine(engine);
+        request.setBodies(Map.of("post", body(items)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        upstream.close();
+        fixture.close();
+    }
+
+    @Benchmark
+    public Object post() {
+        return callerService.callApi(request);
+    }
+
+    // Shaped like a parsed /execute request: maps and lists
+    private static Map<String, Object> body(int items) {
+        List<Object> lines = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("sku", "SKU-" + i);
+            line.put("quantity", i % 7 + 1);
+            line.put("price", 19.99 + i);
+            line.put("tags", List.of("red", "large"));
+            lines.add(line);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("customer", Map.of("id", 42, "email", "buyer@example.com"));
+        body.put("currency", "EUR");
+        body.put("lines", lines);
+        return body;
+    }
+}
@@ -0,0 +1,93 @@
+package com.excellia.service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.excellia.dto.ApiConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Logging cost of one /execute call against a local upstream. Run with -prof gc and compare gc.alloc.rate.norm
+// (bytes per call) across the logging modes:
+//   legacy  - what every call did before: the request config serialized to JSON and the query string built just
+//             to be logged, the response logged, and all upstream traffic logged from buffered responses
+//   debug   - an operation switched to debug in RequestLog, which logs about as much
+//   sampled - the default request log, one call in a hundred
+//   off     - request log disabled
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestLoggingBenchmark.class);
+    private static final String OPERATION_ID = "logBench_GET";
+
+    @Param({"legacy", "debug", "sampled", "off"})
+    public String logging;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StubUpstream upstream;
+    private GeneratedClientFixture fixture;
+    private DynamicApiCallerService callerService;
+    private ApiConfig request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        upstream = StubUpstream.start(128);
+        fixture = GeneratedClientFixture.create();
+        fixture.generate(GeneratedClientFixture.config(upstream.url("/items"), "logBench", "get"));
+        RequestLog requestLog = switch (logging) {
+            case "legacy", "debug" -> new RequestLog(0, Set.of(OPERATION_ID));
+            case "sampled" -> new RequestLog(0.01, Set.of());
+            default -> new RequestLog(0, Set.of());
+        };
+        callerService = fixture.callerService(requestLog);
+
+        request = new ApiConfig();
+        request.setOperationId(OPERATION_ID);
+        request.setMethod("get");
+        request.setQueryParams(Map.of("id", "1"));
+        request.setHeaders(Map.of("Accept", "application/json"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        upstream.close();
+        fixture.close();
+    }
+
+    @Benchmark
+    public Object execute() throws Exception {
+        if (!"legacy".equals(logging)) {
+            return callerService.callApi(request);
+        }
+        log.info("Executing API call for config: {}", objectMapper.writeValueAsString(request));
+        log.info("Invoking operation: {}, HTTP Method: {}", OPERATION_ID, "get");
+        StringBuilder queryString = new StringBuilder("?");
+        request.getQueryParams().forEach((key, value) -> queryString.append(key).append("=").append(value).append("&"));
+        log.info("Query string: {}", queryString.toString());
+        Object response = callerService.callApi(request);
+        log.info("Raw API response: {}", response);
+        log.info("API call successful for operation: {}", OPERATION_ID);
+        return response;
+    }
+}
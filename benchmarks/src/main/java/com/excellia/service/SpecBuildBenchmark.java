@@ -0,0 +1,61 @@
+package com.excellia.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.excellia.dto.ApiConfig;
+
+import io.swagger.v3.oas.models.OpenAPI;
+
+// The part of /generate that runs on the request thread, on growing configs: the OpenAPI model alone, and the
+// model serialized to YAML and hashed.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpecBuildBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int paths;
+
+    private GeneratedClientFixture fixture;
+    private OpenApiSpecBuilder specBuilder;
+    private ApiConfig config;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = GeneratedClientFixture.create();
+        specBuilder = new OpenApiSpecBuilder();
+        config = GeneratedClientFixture.config("http://127.0.0.1:9/bench", paths);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public OpenAPI buildModel() {
+        return specBuilder.build(config);
+    }
+
+    @Benchmark
+    public SpecDocument buildSpec() {
+        return fixture.generatorService().buildSpec(config);
+    }
+}
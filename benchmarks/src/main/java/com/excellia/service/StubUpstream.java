@@ -0,0 +1,69 @@
+package com.excellia.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// In-process upstream on a loopback port: every request gets the same JSON body back, so invocation benchmarks
+// measure the client side only and never touch the network.
+final class StubUpstream implements AutoCloseable {
+
+    private final HttpServer server;
+    private final byte[] body;
+
+    private StubUpstream(HttpServer server, byte[] body) {
+        this.server = server;
+        this.body = body;
+    }
+
+    // A JSON object of about the given size, as a list of small records
+    static StubUpstream start(int responseBytes) throws IOException {
+        // Otherwise the server's separate header and body writes wait on the client's delayed ACK (~40 ms a call)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        StubUpstream upstream = new StubUpstream(server, json(responseBytes));
+        server.createContext("/", upstream::respond);
+        server.start();
+        return upstream;
+    }
+
+    String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    int responseBytes() {
+        return body.length;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] json(int size) {
+        StringBuilder json = new StringBuilder(size + 64).append("{\"items\":[");
+        for (int i = 0; json.length() < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i).append(",\"name\":\"item-").append(i).append("\",\"active\":true}");
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
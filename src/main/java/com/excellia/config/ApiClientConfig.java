@@ -1,9 +1,18 @@
 package com.excellia.config;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.excellia.service.GeneratedClientRegistry;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -11,9 +20,39 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 @Configuration
 public class ApiClientConfig {
 
+    // One JDK client for all upstream traffic: it pools and keeps connections alive per host,
+    // and negotiates HTTP/2 where the upstream supports it
+    @Bean
+    HttpClient upstreamHttpClient(
+            @Value("${excellia.http.version:HTTP_2}") HttpClient.Version version,
+            @Value("${excellia.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+            .version(version)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .followRedirects(HttpClient.Redirect.NORMAL);
+        if (virtualThreads) {
+            // The client's internal completion work then runs on virtual threads too, like the request threads
+            builder.executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+        return builder.build();
+    }
+
+    // Shared by the RestTemplate below and every generated ApiClient
+    @Bean
+    ClientHttpRequestFactory upstreamRequestFactory(
+            HttpClient upstreamHttpClient,
+            @Value("${excellia.http.read-timeout-ms:30000}") long readTimeoutMs,
+            @Value("${excellia.http.max-connections-per-host:50}") int maxConnectionsPerHost,
+            @Value("${excellia.http.acquire-timeout-ms:1000}") long acquireTimeoutMs) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(upstreamHttpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        return new PerHostLimitingRequestFactory(requestFactory, maxConnectionsPerHost, acquireTimeoutMs);
+    }
+
 	@Bean
-    RestTemplate restTemplate() {
-        return new RestTemplate();
+    RestTemplate restTemplate(ClientHttpRequestFactory upstreamRequestFactory) {
+        return new RestTemplate(upstreamRequestFactory);
     }
 
     @Bean
@@ -22,4 +61,13 @@ public class ApiClientConfig {
         mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         return mapper;
     }
-}
\ No newline at end of file
+
+    // Clients registered before a restart load in the background once the context is up; requests that arrive
+    // first load their own client on demand
+    @Bean
+    ApplicationRunner generatedClientPreloader(
+            GeneratedClientRegistry clientRegistry,
+            @Value("${excellia.clients.preload-threads:2}") int preloadThreads) {
+        return args -> clientRegistry.preload(preloadThreads);
+    }
+}
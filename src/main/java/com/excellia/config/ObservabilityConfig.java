@@ -0,0 +1,27 @@
+package com.excellia.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.excellia.service.StageMetrics;
+import com.excellia.service.TraceSpanHandler;
+
+import io.micrometer.observation.ObservationRegistry;
+
+@Configuration
+public class ObservabilityConfig {
+
+    // Stage timings for /generate, /import and /execute always feed the metrics; spans only when tracing is on
+    @Bean
+    ObservationRegistry observationRegistry(
+            StageMetrics stageMetrics,
+            @Value("${excellia.tracing.enabled:false}") boolean tracing) {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(stageMetrics);
+        if (tracing) {
+            registry.observationConfig().observationHandler(new TraceSpanHandler());
+        }
+        return registry;
+    }
+}
@@ -0,0 +1,139 @@
+package com.excellia.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.AbstractClientHttpRequestFactoryWrapper;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+// Caps in-flight exchanges per upstream host. A permit is held from execute() until the response is closed,
+// so it covers the whole time a pooled connection is busy. Callers over the cap wait briefly, then fail fast.
+public class PerHostLimitingRequestFactory extends AbstractClientHttpRequestFactoryWrapper {
+
+    private final int maxPerHost;
+    private final long acquireTimeoutMillis;
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public PerHostLimitingRequestFactory(ClientHttpRequestFactory delegate, int maxPerHost, long acquireTimeoutMillis) {
+        super(delegate);
+        this.maxPerHost = maxPerHost;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @Override
+    protected ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod, ClientHttpRequestFactory requestFactory)
+            throws IOException {
+        return new LimitedRequest(requestFactory.createRequest(uri, httpMethod));
+    }
+
+    private Semaphore permitsFor(URI uri) {
+        return permits.computeIfAbsent(uri.getScheme() + "://" + uri.getAuthority(), host -> new Semaphore(maxPerHost));
+    }
+
+    private final class LimitedRequest implements ClientHttpRequest {
+        private final ClientHttpRequest delegate;
+
+        LimitedRequest(ClientHttpRequest delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            Semaphore semaphore = permitsFor(delegate.getURI());
+            try {
+                if (!semaphore.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new IOException("Too many concurrent requests to " + delegate.getURI().getAuthority()
+                            + " (limit " + maxPerHost + ")");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for a connection to " + delegate.getURI().getAuthority(), e);
+            }
+            try {
+                return new LimitedResponse(delegate.execute(), semaphore);
+            } catch (IOException | RuntimeException e) {
+                semaphore.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return delegate.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return delegate.getURI();
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return delegate.getAttributes();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+    }
+
+    private static final class LimitedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final Semaphore semaphore;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        LimitedResponse(ClientHttpResponse delegate, Semaphore semaphore) {
+            this.delegate = delegate;
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    semaphore.release();
+                }
+            }
+        }
+    }
+}
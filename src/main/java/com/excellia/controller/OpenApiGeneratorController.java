@@ -1,13 +1,46 @@
 package com.excellia.controller;
 
 import com.excellia.dto.ApiConfig;
+import com.excellia.dto.BatchItemResult;
+import com.excellia.dto.GenerationJob;
+import com.excellia.service.BatchApiCallerService;
 import com.excellia.service.DynamicApiCallerService;
-import com.excellia.service.OpenApiCodeGenLibraryService;
-import com.excellia.service.OpenApiGeneratorService;
+import com.excellia.service.ExecutionEngine;
+import com.excellia.service.GenerationJobService;
+import com.excellia.service.OpenApiImportService;
+import com.excellia.service.RateLimitedException;
+import com.excellia.service.RateLimiter;
+import com.excellia.service.RequestLog;
+import com.excellia.service.StageMetrics;
+import com.excellia.service.Stages;
+import com.excellia.service.UpstreamResilience;
+import com.excellia.service.UpstreamResponseCache;
+import com.excellia.service.UpstreamResponseSink;
+import com.excellia.service.UpstreamUnavailableException;
+
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -15,24 +48,49 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 @RequestMapping("/api/openapi")
 public class OpenApiGeneratorController {
     private static final Logger log = LoggerFactory.getLogger(OpenApiGeneratorController.class);
-    private final OpenApiGeneratorService openApiGeneratorService;
-    private final OpenApiCodeGenLibraryService codeGenLibraryService;
+    // Connection-level headers describe the upstream hop, not the response we pass on
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade");
+    private final GenerationJobService generationJobService;
+    private final OpenApiImportService importService;
     private final DynamicApiCallerService dynamicApiCallerService;
+    private final BatchApiCallerService batchApiCallerService;
+    private final UpstreamResponseCache responseCache;
+    private final UpstreamResilience resilience;
+    private final RateLimiter rateLimiter;
+    private final StageMetrics stageMetrics;
+    private final RequestLog requestLog;
+    private final ObservationRegistry observations;
     private final ObjectMapper objectMapper;
 
     public OpenApiGeneratorController(
-            OpenApiGeneratorService openApiGeneratorService,
-            OpenApiCodeGenLibraryService codeGenLibraryService,
+            GenerationJobService generationJobService,
+            OpenApiImportService importService,
             DynamicApiCallerService dynamicApiCallerService,
+            BatchApiCallerService batchApiCallerService,
+            UpstreamResponseCache responseCache,
+            UpstreamResilience resilience,
+            RateLimiter rateLimiter,
+            StageMetrics stageMetrics,
+            RequestLog requestLog,
+            ObservationRegistry observations,
             ObjectMapper objectMapper) {
-        this.openApiGeneratorService = openApiGeneratorService;
-        this.codeGenLibraryService = codeGenLibraryService;
+        this.generationJobService = generationJobService;
+        this.importService = importService;
         this.dynamicApiCallerService = dynamicApiCallerService;
+        this.batchApiCallerService = batchApiCallerService;
+        this.responseCache = responseCache;
+        this.resilience = resilience;
+        this.rateLimiter = rateLimiter;
+        this.stageMetrics = stageMetrics;
+        this.requestLog = requestLog;
+        this.observations = observations;
         this.objectMapper = objectMapper;
     }
 
+    // Queues generation and returns the job at once; poll /generate/jobs/{id} until it is SUCCEEDED or FAILED
     @PostMapping("/generate")
-    public ResponseEntity<String> generateFromConfig(@RequestBody ApiConfig config) {
+    public ResponseEntity<?> generateFromConfig(@RequestBody ApiConfig config) {
         try {
             String configJson = objectMapper.writeValueAsString(config);
             log.info("Generating OpenAPI spec and client code for config: {}", configJson);
@@ -42,11 +100,14 @@ public class OpenApiGeneratorController {
                 return ResponseEntity.status(400).body("❌ URL is required for generation");
             }
 
-            openApiGeneratorService.generateFromConfig(config);
-            codeGenLibraryService.generateCode();
-            
-            log.info("Generation complete for operation: {}", config.getOperationId());
-            return ResponseEntity.ok("✅ Generation complete");
+            GenerationJob job = generationJobService.submit(config);
+            return ResponseEntity.status(job.getStatus() == GenerationJob.Status.SUCCEEDED ? 200 : 202).body(job);
+        } catch (RejectedExecutionException e) {
+            log.warn("Generation queue full, rejecting operation: {}", config.getOperationId());
+            return ResponseEntity.status(503).body("⏳ Generation queue is full, retry later");
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid generation request: {}", e.getMessage());
+            return ResponseEntity.status(400).body("❌ Error: " + e.getMessage());
         } catch (Exception e) {
             log.error("Error during generation: {}", e.getMessage(), e);
             return ResponseEntity.status(500)
@@ -54,28 +115,67 @@ public class OpenApiGeneratorController {
         }
     }
 
-    @PostMapping("/execute")
-    public ResponseEntity<?> executeApiCall(@RequestBody ApiConfig config) throws Exception {
+    // Takes an existing OpenAPI 3.x document (YAML or JSON) as the raw request body, read as a stream, and queues
+    // one client for all of its operations; they are executed under their own operationIds. With
+    // engine=interpreted no code is generated and the operations can be called as soon as the spec is stored.
+    @PostMapping("/import")
+    public ResponseEntity<?> importSpec(InputStream body, @RequestParam(required = false) String baseUrl,
+            @RequestParam(required = false) String engine) {
         try {
-            String configJson = objectMapper.writeValueAsString(config);
-            log.info("Executing API call for config: {}", configJson);
+            // Checked before the document is read
+            ExecutionEngine.of(engine, null);
+            OpenApiImportService.ImportedSpec imported = importService.importSpec(body, baseUrl);
+            log.info("Importing spec {} with {} operations", imported.specHash(), imported.operations());
+            GenerationJob job = generationJobService.submitImport(imported, engine);
+            return ResponseEntity.status(job.getStatus() == GenerationJob.Status.SUCCEEDED ? 200 : 202).body(job);
+        } catch (RejectedExecutionException e) {
+            log.warn("Rejecting spec import: {}", e.getMessage());
+            return ResponseEntity.status(503).body("⏳ " + e.getMessage() + ", retry later");
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid spec import: {}", e.getMessage());
+            return ResponseEntity.status(400).body("❌ Error: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Error during spec import: {}", e.getMessage(), e);
+            return ResponseEntity.status(500).body("❌ Error: " + e.getMessage());
+        }
+    }
 
+    @GetMapping("/generate/jobs/{id}")
+    public ResponseEntity<?> generationJob(@PathVariable String id) {
+        GenerationJob job = generationJobService.get(id);
+        if (job == null) {
+            return ResponseEntity.status(404).body("❌ Unknown generation job " + id);
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    @PostMapping("/execute")
+    public ResponseEntity<?> executeApiCall(@RequestBody ApiConfig config, HttpServletRequest request) throws Exception {
+        try {
             if (config.getOperationId() == null || config.getOperationId().isEmpty()) {
                 log.error("OperationId is required for execution");
                 return ResponseEntity.status(400).body("❌ OperationId is required");
             }
 
-            dynamicApiCallerService.initializeGeneratedClient();
-            log.debug("Generated client initialized");
-
-            String httpMethod = config.getMethod() != null ? config.getMethod().toUpperCase() : "GET";
-            String effectiveOperationId = config.getOperationId() + "_" + httpMethod;
-            config.setOperationId(effectiveOperationId);
-            log.debug("Adjusted operationId to: {}", effectiveOperationId);
+            String effectiveOperationId = adjustOperationId(config);
+            config.setCaller(caller(request));
 
+            // Calls are logged, sampled, by RequestLog
             Object response = dynamicApiCallerService.callApi(config);
-            log.info("API call successful for operation: {}", effectiveOperationId);
-            return ResponseEntity.ok(response);
+            if (response == null || response instanceof String || response instanceof byte[]) {
+                return ResponseEntity.ok(response);
+            }
+            // Serialized here, with the same mapper the JSON message converter uses, so that it can be timed
+            byte[] json = Stages.observe(observations, Stages.EXECUTE, Stages.SERIALIZE, effectiveOperationId,
+                    () -> objectMapper.writeValueAsBytes(response));
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+        } catch (UpstreamUnavailableException e) {
+            return upstreamUnavailable(e);
+        } catch (RateLimitedException e) {
+            return rateLimited(e);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid request: {}", e.getMessage());
+            return ResponseEntity.status(400).body("❌ " + e.getMessage());
         } catch (IllegalStateException e) {
             log.warn("Invalid state: {}", e.getMessage());
             return ResponseEntity.status(400)
@@ -86,4 +186,200 @@ public class OpenApiGeneratorController {
                 .body("❌ API Error: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // Like /execute, but copies the upstream status, headers and body bytes straight to the response
+    // through a fixed-size buffer; the body is never deserialized, re-serialized or logged.
+    @PostMapping("/execute/stream")
+    public ResponseEntity<String> executeApiCallStreaming(@RequestBody ApiConfig config, HttpServletRequest request,
+            HttpServletResponse response) {
+        if (config.getOperationId() == null || config.getOperationId().isEmpty()) {
+            log.error("OperationId is required for execution");
+            return ResponseEntity.status(400).body("❌ OperationId is required");
+        }
+        String effectiveOperationId = adjustOperationId(config);
+        config.setCaller(caller(request));
+        UpstreamResponseSink sink = (status, headers) -> {
+            response.setStatus(status.value());
+            headers.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    values.forEach(value -> response.addHeader(name, value));
+                }
+            });
+            return response.getOutputStream();
+        };
+        try {
+            dynamicApiCallerService.streamApi(config, sink);
+            return null;
+        } catch (RuntimeException e) {
+            if (response.isCommitted()) {
+                log.error("Streaming failed after the response was committed for operation {}: {}",
+                        effectiveOperationId, e.getMessage());
+                return null;
+            }
+            response.reset();
+            if (e instanceof UpstreamUnavailableException unavailable) {
+                return upstreamUnavailable(unavailable);
+            }
+            if (e instanceof RateLimitedException rateLimited) {
+                return rateLimited(rateLimited);
+            }
+            if (e instanceof IllegalArgumentException) {
+                log.warn("Invalid request: {}", e.getMessage());
+                return ResponseEntity.status(400).body("❌ " + e.getMessage());
+            }
+            if (e instanceof IllegalStateException) {
+                log.warn("Invalid state: {}", e.getMessage());
+                return ResponseEntity.status(400)
+                    .body("⚠️ " + e.getMessage() + ". Call /generate first and ensure client code is generated.");
+            }
+            log.error("API execution failed: {}", e.getMessage(), e);
+            return ResponseEntity.status(500).body("❌ API Error: " + e.getMessage());
+        }
+    }
+
+    // Runs every entry like /execute and returns one JSON array in request order. Each entry carries its own status.
+    @PostMapping("/execute/batch")
+    public ResponseEntity<?> executeBatch(
+            @RequestBody List<ApiConfig> configs,
+            @RequestParam(required = false) Integer parallelism,
+            @RequestParam(defaultValue = "request") String order,
+            HttpServletRequest request) {
+        if (!"request".equalsIgnoreCase(order)) {
+            return ResponseEntity.status(400).body("❌ Unknown order '" + order + "', use 'request' or 'completion'");
+        }
+        String error = prepareBatch(configs, caller(request));
+        if (error != null) {
+            return ResponseEntity.status(400).body(error);
+        }
+        int effectiveParallelism = batchApiCallerService.effectiveParallelism(parallelism);
+        log.info("Executing batch of {} calls with parallelism {}", configs.size(), effectiveParallelism);
+        return ResponseEntity.ok(batchApiCallerService.callAll(configs, effectiveParallelism));
+    }
+
+    // Same as above, but streams one NDJSON line per entry as soon as it finishes
+    @PostMapping(value = "/execute/batch", params = "order=completion")
+    public ResponseEntity<StreamingResponseBody> executeBatchStreaming(
+            @RequestBody List<ApiConfig> configs,
+            @RequestParam(required = false) Integer parallelism,
+            HttpServletRequest request) {
+        String error = prepareBatch(configs, caller(request));
+        if (error != null) {
+            return ResponseEntity.status(400).contentType(MediaType.TEXT_PLAIN)
+                .body(out -> out.write(error.getBytes(StandardCharsets.UTF_8)));
+        }
+        int effectiveParallelism = batchApiCallerService.effectiveParallelism(parallelism);
+        log.info("Streaming batch of {} calls with parallelism {}", configs.size(), effectiveParallelism);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON)
+            .body(out -> batchApiCallerService.callAll(configs, effectiveParallelism, result -> writeLine(out, result)));
+    }
+
+    // Every entry counts against the caller's rate limit
+    private String prepareBatch(List<ApiConfig> configs, String caller) {
+        if (configs == null || configs.isEmpty()) {
+            return "❌ At least one ApiConfig entry is required";
+        }
+        if (configs.size() > batchApiCallerService.getMaxItems()) {
+            return "❌ Batch too large: " + configs.size() + " entries (max " + batchApiCallerService.getMaxItems() + ")";
+        }
+        for (ApiConfig config : configs) {
+            if (config != null && config.getOperationId() != null && !config.getOperationId().isEmpty()) {
+                adjustOperationId(config);
+                config.setCaller(caller);
+            }
+        }
+        return null;
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> responseCacheStats() {
+        return ResponseEntity.ok(responseCache.stats());
+    }
+
+    // Circuit state, calls in flight and recent retries per upstream called since startup
+    @GetMapping("/upstreams")
+    public ResponseEntity<Map<String, Object>> upstreamStats() {
+        return ResponseEntity.ok(resilience.stats());
+    }
+
+    // Limits, free tokens and allowed/queued/rejected calls per upstream and caller seen since startup
+    @GetMapping("/rate-limits")
+    public ResponseEntity<Map<String, Object>> rateLimitStats() {
+        return ResponseEntity.ok(rateLimiter.stats());
+    }
+
+    // Operations (as registered, e.g. users_GET) whose every call is logged with values, body and upstream traffic
+    @GetMapping("/debug/operations")
+    public ResponseEntity<Set<String>> debugOperations() {
+        return ResponseEntity.ok(requestLog.getDebugOperations());
+    }
+
+    @PutMapping("/debug/operations/{operationId}")
+    public ResponseEntity<Set<String>> enableDebug(@PathVariable String operationId) {
+        requestLog.setDebug(operationId, true);
+        return ResponseEntity.ok(requestLog.getDebugOperations());
+    }
+
+    @DeleteMapping("/debug/operations/{operationId}")
+    public ResponseEntity<Set<String>> disableDebug(@PathVariable String operationId) {
+        requestLog.setDebug(operationId, false);
+        return ResponseEntity.ok(requestLog.getDebugOperations());
+    }
+
+    // Stage latency histograms and rate limiter counters in the Prometheus text exposition format, for scraping
+    @GetMapping(value = "/metrics", produces = "text/plain; version=0.0.4; charset=utf-8")
+    public ResponseEntity<StreamingResponseBody> metrics() {
+        return ResponseEntity.ok().body(out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            stageMetrics.scrape(writer);
+            rateLimiter.scrape(writer);
+            writer.flush();
+        });
+    }
+
+    // Generated operations are named <operationId>_<METHOD>
+    // Operations of built specs are registered as <operationId>_<METHOD>; imported ones under their own id
+    private String adjustOperationId(ApiConfig config) {
+        if (dynamicApiCallerService.hasOperation(config.getOperationId())) {
+            return config.getOperationId();
+        }
+        String httpMethod = config.getMethod() != null ? config.getMethod().toUpperCase() : "GET";
+        String effectiveOperationId = config.getOperationId() + "_" + httpMethod;
+        config.setOperationId(effectiveOperationId);
+        log.debug("Adjusted operationId to: {}", effectiveOperationId);
+        return effectiveOperationId;
+    }
+
+    // The upstream was not called: its circuit breaker is open or it already has as many calls as it may take
+    private ResponseEntity<String> upstreamUnavailable(UpstreamUnavailableException e) {
+        log.warn("Upstream unavailable: {}", e.getMessage());
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(503);
+        if (e.getRetryAfterMillis() > 0) {
+            response.header(HttpHeaders.RETRY_AFTER, Long.toString((e.getRetryAfterMillis() + 999) / 1000));
+        }
+        return response.body("⏳ " + e.getMessage() + ". Try again later.");
+    }
+
+    // Over the rate limit of the upstream or of the caller; the upstream was not called
+    private ResponseEntity<String> rateLimited(RateLimitedException e) {
+        log.warn("Rate limited: {}", e.getMessage());
+        return ResponseEntity.status(429)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, (e.getRetryAfterMillis() + 999) / 1000)))
+            .body("⏳ " + e.getMessage() + ". Slow down and try again later.");
+    }
+
+    // The configured caller header, else the client address
+    private String caller(HttpServletRequest request) {
+        String caller = request.getHeader(rateLimiter.getCallerHeader());
+        return caller != null && !caller.isBlank() ? caller.trim() : request.getRemoteAddr();
+    }
+
+    private void writeLine(OutputStream out, BatchItemResult result) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to stream batch result " + result.getIndex(), e);
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.excellia.dto;
 import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class ApiConfig {
     private String url;
     private String method;
@@ -12,6 +14,16 @@ public class ApiConfig {
     private Map<String, String> queryParams;
     private Object body;
     private Map<String, Object> bodies;
+    // Endpoints for /generate; when absent the spec has the single "/" path described by the fields above
+    private List<PathConfig> paths;
+    // "generated" or "interpreted": for /generate, whether to generate code at all; for /execute, which engine
+    // calls the operation (by default the one its spec was generated for)
+    private String engine;
+    // For /execute: reshapes the upstream JSON response as it is read, see ResponseTransform
+    private ResponseTransform transform;
+    // Who made the /execute call, for per-caller rate limits; set from the request, never from the body
+    @JsonIgnore
+    private String caller;
 
     public String getUrl() {
         return url;
@@ -76,4 +88,36 @@ public class ApiConfig {
     public void setBodies(Map<String, Object> bodies) {
         this.bodies = bodies;
     }
-}
\ No newline at end of file
+
+    public List<PathConfig> getPaths() {
+        return paths;
+    }
+
+    public void setPaths(List<PathConfig> paths) {
+        this.paths = paths;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public void setEngine(String engine) {
+        this.engine = engine;
+    }
+
+    public ResponseTransform getTransform() {
+        return transform;
+    }
+
+    public void setTransform(ResponseTransform transform) {
+        this.transform = transform;
+    }
+
+    public String getCaller() {
+        return caller;
+    }
+
+    public void setCaller(String caller) {
+        this.caller = caller;
+    }
+}
@@ -0,0 +1,61 @@
+package com.excellia.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+    private int index;
+    private int status;
+    private Object response;
+    private String error;
+
+    public BatchItemResult() {
+    }
+
+    public BatchItemResult(int index, int status, Object response, String error) {
+        this.index = index;
+        this.status = status;
+        this.response = response;
+        this.error = error;
+    }
+
+    public static BatchItemResult success(int index, Object response) {
+        return new BatchItemResult(index, 200, response, null);
+    }
+
+    public static BatchItemResult failure(int index, int status, String error) {
+        return new BatchItemResult(index, status, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public Object getResponse() {
+        return response;
+    }
+
+    public void setResponse(Object response) {
+        this.response = response;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
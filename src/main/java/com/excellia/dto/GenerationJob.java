@@ -0,0 +1,83 @@
+package com.excellia.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// State of one /generate submission. The id is the spec hash, so identical specs share a job.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GenerationJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final String id;
+    private final String operationId;
+    // "generated", or "interpreted" when no code is generated for the spec
+    private final String engine;
+    private final long submittedAt;
+    private volatile Status status = Status.QUEUED;
+    private volatile Long startedAt;
+    private volatile Long finishedAt;
+    private volatile String error;
+
+    public GenerationJob(String id, String operationId, String engine) {
+        this.id = id;
+        this.operationId = operationId;
+        this.engine = engine;
+        this.submittedAt = System.currentTimeMillis();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Long getStartedAt() {
+        return startedAt;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    public void markRunning() {
+        startedAt = System.currentTimeMillis();
+        status = Status.RUNNING;
+    }
+
+    public void markSucceeded() {
+        finishedAt = System.currentTimeMillis();
+        status = Status.SUCCEEDED;
+    }
+
+    public void markFailed(String error) {
+        this.error = error;
+        finishedAt = System.currentTimeMillis();
+        status = Status.FAILED;
+    }
+}
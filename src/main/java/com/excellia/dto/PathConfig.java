@@ -0,0 +1,54 @@
+package com.excellia.dto;
+
+import java.util.List;
+import java.util.Map;
+
+// One endpoint of a multi-path spec. The path may contain {name} templates; their values are passed
+// in queryParams on /execute like any other parameter.
+public class PathConfig {
+    private String path;
+    private String operationId;
+    private List<String> methods;
+    private Map<String, String> queryParams;
+    private Map<String, Object> bodies;
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(String operationId) {
+        this.operationId = operationId;
+    }
+
+    public List<String> getMethods() {
+        return methods;
+    }
+
+    public void setMethods(List<String> methods) {
+        this.methods = methods;
+    }
+
+    public Map<String, String> getQueryParams() {
+        return queryParams;
+    }
+
+    public void setQueryParams(Map<String, String> queryParams) {
+        this.queryParams = queryParams;
+    }
+
+    public Map<String, Object> getBodies() {
+        return bodies;
+    }
+
+    public void setBodies(Map<String, Object> bodies) {
+        this.bodies = bodies;
+    }
+}
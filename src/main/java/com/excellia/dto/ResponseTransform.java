@@ -0,0 +1,89 @@
+package com.excellia.dto;
+
+import java.util.List;
+
+// Reshapes the JSON response of /execute before it is returned: picks the array of items, keeps the items meeting
+// every condition, pages through them and keeps only the selected fields. Paths are JSON pointers; a * segment
+// matches every member or element.
+//   {"items": "/data", "where": [{"pointer": "/status", "op": "eq", "value": "open"}], "limit": 20,
+//    "select": ["/id", "/owner/name"]}
+public class ResponseTransform {
+    // The array to filter and page; by default the response itself
+    private String items;
+    private List<Condition> where;
+    private Integer offset;
+    private Integer limit;
+    // Fields kept of each item, or of the response when it is not paged; everything by default
+    private List<String> select;
+
+    public String getItems() {
+        return items;
+    }
+
+    public void setItems(String items) {
+        this.items = items;
+    }
+
+    public List<Condition> getWhere() {
+        return where;
+    }
+
+    public void setWhere(List<Condition> where) {
+        this.where = where;
+    }
+
+    public Integer getOffset() {
+        return offset;
+    }
+
+    public void setOffset(Integer offset) {
+        this.offset = offset;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public List<String> getSelect() {
+        return select;
+    }
+
+    public void setSelect(List<String> select) {
+        this.select = select;
+    }
+
+    // op is one of eq, ne, gt, gte, lt, lte, in (value is a list) or exists (value is true or false)
+    public static class Condition {
+        private String pointer;
+        private String op;
+        private Object value;
+
+        public String getPointer() {
+            return pointer;
+        }
+
+        public void setPointer(String pointer) {
+            this.pointer = pointer;
+        }
+
+        public String getOp() {
+            return op;
+        }
+
+        public void setOp(String op) {
+            this.op = op;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public void setValue(Object value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.excellia.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.excellia.dto.ApiConfig;
+import com.excellia.dto.BatchItemResult;
+
+// Runs many /execute calls at once: one virtual thread per item, at most `parallelism` of them calling upstream.
+@Service
+public class BatchApiCallerService {
+    private static final Logger log = LoggerFactory.getLogger(BatchApiCallerService.class);
+
+    private final DynamicApiCallerService dynamicApiCallerService;
+    private final int maxItems;
+    private final int maxParallelism;
+
+    public BatchApiCallerService(
+            DynamicApiCallerService dynamicApiCallerService,
+            @Value("${excellia.batch.max-items:1000}") int maxItems,
+            @Value("${excellia.batch.max-parallelism:32}") int maxParallelism) {
+        this.dynamicApiCallerService = dynamicApiCallerService;
+        this.maxItems = maxItems;
+        this.maxParallelism = maxParallelism;
+    }
+
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    // Requested parallelism clamped to [1, excellia.batch.max-parallelism]; null means the maximum
+    public int effectiveParallelism(Integer requested) {
+        return requested == null ? maxParallelism : Math.max(1, Math.min(requested, maxParallelism));
+    }
+
+    // Results in request order, once every item has finished
+    public List<BatchItemResult> callAll(List<ApiConfig> configs, int parallelism) {
+        List<BatchItemResult> results = new ArrayList<>(configs.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Semaphore permits = new Semaphore(parallelism);
+            List<Future<BatchItemResult>> futures = new ArrayList<>(configs.size());
+            for (int i = 0; i < configs.size(); i++) {
+                int index = i;
+                futures.add(executor.submit(() -> callLimited(permits, index, configs.get(index))));
+            }
+            for (Future<BatchItemResult> future : futures) {
+                results.add(await(future, executor));
+            }
+        }
+        return results;
+    }
+
+    // Hands each result to the consumer, on the calling thread, as soon as its item finishes
+    public void callAll(List<ApiConfig> configs, int parallelism, Consumer<BatchItemResult> onResult) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Semaphore permits = new Semaphore(parallelism);
+            CompletionService<BatchItemResult> completions = new ExecutorCompletionService<>(executor);
+            for (int i = 0; i < configs.size(); i++) {
+                int index = i;
+                completions.submit(() -> callLimited(permits, index, configs.get(index)));
+            }
+            for (int i = 0; i < configs.size(); i++) {
+                Future<BatchItemResult> done;
+                try {
+                    done = completions.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    executor.shutdownNow();
+                    throw new IllegalStateException("Batch interrupted", e);
+                }
+                onResult.accept(await(done, executor));
+            }
+        }
+    }
+
+    private BatchItemResult callLimited(Semaphore permits, int index, ApiConfig config) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return BatchItemResult.failure(index, 503, "Batch interrupted");
+        }
+        try {
+            return call(index, config);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Same status mapping as a single /execute, but reported on the item instead of failing the batch
+    private BatchItemResult call(int index, ApiConfig config) {
+        if (config == null || config.getOperationId() == null || config.getOperationId().isEmpty()) {
+            return BatchItemResult.failure(index, 400, "OperationId is required");
+        }
+        try {
+            return BatchItemResult.success(index, dynamicApiCallerService.callApi(config));
+        } catch (UpstreamUnavailableException e) {
+            log.warn("Batch item {} rejected: {}", index, e.getMessage());
+            return BatchItemResult.failure(index, 503, e.getMessage());
+        } catch (RateLimitedException e) {
+            log.warn("Batch item {} rate limited: {}", index, e.getMessage());
+            return BatchItemResult.failure(index, 429, e.getMessage());
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            log.warn("Batch item {} invalid: {}", index, e.getMessage());
+            return BatchItemResult.failure(index, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Batch item {} failed: {}", index, e.getMessage());
+            return BatchItemResult.failure(index, 500, e.getMessage());
+        }
+    }
+
+    private static BatchItemResult await(Future<BatchItemResult> future, ExecutorService executor) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            throw new IllegalStateException("Batch interrupted", e);
+        } catch (ExecutionException e) {
+            // Items report their own failures, so only an Error gets here
+            throw new IllegalStateException("Batch item crashed: " + e.getCause(), e.getCause());
+        }
+    }
+}
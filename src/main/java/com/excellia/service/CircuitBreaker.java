@@ -0,0 +1,128 @@
+package com.excellia.service;
+
+// Count-based circuit breaker over the outcomes of the last windowSize calls. Every transition happens under the
+// instance lock, which is only ever held for a few field updates.
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final boolean[] window;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    CircuitBreaker(UpstreamPolicy policy) {
+        this.minimumCalls = Math.max(1, policy.minimumCalls());
+        this.failureRatePercent = policy.failureRatePercent();
+        this.openNanos = policy.openMillis() * 1_000_000L;
+        this.halfOpenCalls = Math.max(1, policy.halfOpenCalls());
+        this.window = new boolean[Math.max(1, policy.windowSize())];
+    }
+
+    // False while open, and once the half-open trial calls are all taken
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) {
+                return false;
+            }
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    // The upstream answered: closes the breaker again once every trial call has. True when this closed it
+    synchronized boolean onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++trialsSucceeded >= halfOpenCalls) {
+                reset();
+                return true;
+            }
+            return false;
+        }
+        record(false);
+        return false;
+    }
+
+    // Any failed trial call reopens the breaker. True when this opened it
+    synchronized boolean onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return true;
+        }
+        if (state == State.OPEN) {
+            return false;
+        }
+        record(true);
+        if (recorded >= minimumCalls && failures * 100 >= failureRatePercent * recorded) {
+            open();
+            return true;
+        }
+        return false;
+    }
+
+    // An acquired call that never reached the upstream gives its trial slot back
+    synchronized void onSkipped() {
+        if (state == State.HALF_OPEN && trialsStarted > trialsSucceeded) {
+            trialsStarted--;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    synchronized long retryAfterMillis() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, (openNanos - (System.nanoTime() - openedAt)) / 1_000_000L);
+    }
+
+    synchronized int failureRatePercent() {
+        return recorded == 0 ? 0 : failures * 100 / recorded;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,99 @@
+package com.excellia.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+// The compiled classes of one generated client in a single file, next to its sources. Written once after the
+// first compilation (to a temp file, then moved into place); later loads map it read-only and define each class
+// straight from its slice of the mapping, so a restarted instance neither recompiles nor copies class bytes.
+final class ClassPack {
+
+    private static final int MAGIC = 0x45584350;
+    private static final int FORMAT = 1;
+
+    private final String coreKey;
+    private final Map<String, ByteBuffer> classes;
+
+    private ClassPack(String coreKey, Map<String, ByteBuffer> classes) {
+        this.coreKey = coreKey;
+        this.classes = classes;
+    }
+
+    // The shared core classes the client was compiled against
+    String getCoreKey() {
+        return coreKey;
+    }
+
+    Map<String, ByteBuffer> getClasses() {
+        return classes;
+    }
+
+    static void write(Path file, String coreKey, Map<String, byte[]> classes) throws IOException {
+        Path tempPath = Files.createTempFile(file.getParent(), "classes", ".pack.tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                out.writeInt(Runtime.version().feature());
+                writeString(out, coreKey);
+                out.writeInt(classes.size());
+                for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                    writeString(out, entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    out.write(entry.getValue());
+                }
+            }
+            Files.move(tempPath, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    // Null when the file was written in another format or by another JDK release
+    static ClassPack read(Path file) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (mapped.getInt() != MAGIC || mapped.getInt() != FORMAT || mapped.getInt() != Runtime.version().feature()) {
+                return null;
+            }
+            String coreKey = readString(mapped);
+            int count = mapped.getInt();
+            Map<String, ByteBuffer> classes = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String name = readString(mapped);
+                int length = mapped.getInt();
+                classes.put(name, mapped.slice(mapped.position(), length));
+                mapped.position(mapped.position() + length);
+            }
+            return new ClassPack(coreKey, classes);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt class pack " + file + ": " + e, e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,85 @@
+package com.excellia.service;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+// Lets the response cache see past the generated client: adds its validators to the outgoing request
+// and records the upstream status and caching headers, which the generated methods do not return.
+class ConditionalRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final ThreadLocal<Exchange> CURRENT = new ThreadLocal<>();
+
+    static RequestHeadersInterceptor.Scope open(Exchange exchange) {
+        Exchange previous = CURRENT.get();
+        CURRENT.set(exchange);
+        return previous == null ? CURRENT::remove : () -> CURRENT.set(previous);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Exchange exchange = CURRENT.get();
+        if (exchange == null) {
+            return execution.execute(request, body);
+        }
+        if (exchange.ifNoneMatch != null) {
+            request.getHeaders().setIfNoneMatch(exchange.ifNoneMatch);
+        }
+        if (exchange.ifModifiedSince != null) {
+            request.getHeaders().set(HttpHeaders.IF_MODIFIED_SINCE, exchange.ifModifiedSince);
+        }
+        ClientHttpResponse response = execution.execute(request, body);
+        HttpHeaders headers = response.getHeaders();
+        exchange.status = response.getStatusCode().value();
+        exchange.etag = headers.getETag();
+        exchange.lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        exchange.cacheControl = headers.getCacheControl();
+        if (exchange.isNotModified()) {
+            // The generated client treats 304 as an error; the cache already holds the body it stands for
+            response.close();
+            return new NoContentResponse();
+        }
+        return response;
+    }
+
+    // One upstream call as seen by the cache: validators going out, status and caching headers coming back
+    static final class Exchange {
+        private final String ifNoneMatch;
+        private final String ifModifiedSince;
+        private int status;
+        private String etag;
+        private String lastModified;
+        private String cacheControl;
+
+        Exchange(String ifNoneMatch, String ifModifiedSince) {
+            this.ifNoneMatch = ifNoneMatch;
+            this.ifModifiedSince = ifModifiedSince;
+        }
+
+        int getStatus() {
+            return status;
+        }
+
+        String getEtag() {
+            return etag;
+        }
+
+        String getLastModified() {
+            return lastModified;
+        }
+
+        boolean isNotModified() {
+            return status == 304;
+        }
+
+        // Keys include the caller's credentials, so "private" responses are fine to keep; "no-store" is not
+        boolean isStorable() {
+            return status >= 200 && status < 300 && (cacheControl == null || !cacheControl.contains("no-store"));
+        }
+    }
+}
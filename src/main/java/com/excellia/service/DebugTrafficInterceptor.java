@@ -0,0 +1,56 @@
+package com.excellia.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+// Logs the upstream request and response of calls to operations switched to debug in RequestLog; a pass-through
+// for every other call. Replaces the generated ApiClient's debugging mode, which logged all traffic of every
+// operation and needed every response buffered to do so.
+class DebugTrafficInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(DebugTrafficInterceptor.class);
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+    private static final RequestHeadersInterceptor.Scope NO_OP = () -> { };
+
+    // Opened around the upstream call; only calls to an operation being debugged are logged
+    static RequestHeadersInterceptor.Scope open(RequestLog.Detail detail, String operationId) {
+        if (detail != RequestLog.Detail.FULL) {
+            return NO_OP;
+        }
+        String previous = CURRENT.get();
+        CURRENT.set(operationId);
+        return previous == null ? CURRENT::remove : () -> CURRENT.set(previous);
+    }
+
+    // Responses are buffered only then, so the body can be logged and still be read by the generated client
+    static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String operationId = CURRENT.get();
+        if (operationId == null) {
+            return execution.execute(request, body);
+        }
+        log.info("upstream operation={} request {} {} headers={} body={}", operationId, request.getMethod(),
+                request.getURI(), request.getHeaders().keySet(), new String(body, StandardCharsets.UTF_8));
+        ClientHttpResponse response = execution.execute(request, body);
+        // A streamed response has already gone to the caller and comes back as an empty stand-in
+        String responseBody = response instanceof NoContentResponse
+            ? "(streamed)"
+            : StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
+        log.info("upstream operation={} response {} headers={} body={}", operationId, response.getStatusCode().value(),
+                response.getHeaders().keySet(), responseBody);
+        return response;
+    }
+}
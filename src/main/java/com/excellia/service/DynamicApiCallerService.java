@@ -1,10 +1,6 @@
 package com.excellia.service;
 
-import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.util.Arrays;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,157 +8,147 @@ import org.springframework.stereotype.Service;
 
 import com.excellia.dto.ApiConfig;
 
+import io.micrometer.observation.ObservationRegistry;
+
 @Service
 public class DynamicApiCallerService {
     private static final Logger log = LoggerFactory.getLogger(DynamicApiCallerService.class);
-    private Object apiClient;
-    private Object defaultApi;
-    private boolean isGenerated = false;
-
-    public void initializeGeneratedClient() throws Exception {
-        log.info("Initializing generated API client");
-        try {
-            Class<?> apiClientClass = Class.forName("com.excellia.core.ApiClient");
-            this.apiClient = apiClientClass.getConstructor().newInstance();
+    private final GeneratedClientRegistry clientRegistry;
+    private final UpstreamResponseCache responseCache;
+    private final ObservationRegistry observations;
+    private final RequestLog requestLog;
+    private final UpstreamResilience resilience;
+    private final RateLimiter rateLimiter;
+
+    public DynamicApiCallerService(GeneratedClientRegistry clientRegistry, UpstreamResponseCache responseCache,
+            ObservationRegistry observations, RequestLog requestLog, UpstreamResilience resilience,
+            RateLimiter rateLimiter) {
+        this.clientRegistry = clientRegistry;
+        this.responseCache = responseCache;
+        this.observations = observations;
+        this.requestLog = requestLog;
+        this.resilience = resilience;
+        this.rateLimiter = rateLimiter;
+    }
 
-            Class<?> defaultApiClass = Class.forName("com.excellia.api.DefaultApi");
-            this.defaultApi = defaultApiClass.getConstructor(apiClientClass).newInstance(this.apiClient);
+    // Compiles the spec's client up front so the first /execute against it does not pay for it
+    public void registerSpec(String specHash) {
+        registerSpec(specHash, ExecutionEngine.GENERATED);
+    }
 
-            this.isGenerated = true;
-            log.info("API client initialized successfully");
-        } catch (ClassNotFoundException e) {
-            log.error("Generated API classes not found. Ensure /generate endpoint is called first: {}", e.getMessage());
-            throw new IllegalStateException("Generated API classes not found. Call /generate first.", e);
-        } catch (Exception e) {
-            log.error("Failed to initialize API client: {}", e.getMessage());
-            throw new Exception("Failed to initialize API client: " + e.getMessage(), e);
+    // The interpreted engine needs only the stored spec, so nothing is compiled
+    public void registerSpec(String specHash, ExecutionEngine engine) {
+        if (engine == ExecutionEngine.INTERPRETED) {
+            clientRegistry.registerInterpreted(specHash);
+        } else {
+            clientRegistry.register(specHash);
         }
     }
 
+    public boolean hasOperation(String operationId) {
+        return clientRegistry.hasOperation(operationId);
+    }
+
     public Object callApi(ApiConfig config) {
-        if (!isGenerated) {
-            log.error("API client not generated. Call /generate first.");
-            throw new IllegalStateException("API client not generated. Call /generate first.");
+        return invoke(config, null);
+    }
+
+    // Writes the upstream response to the sink as it arrives instead of deserializing it
+    public void streamApi(ApiConfig config, UpstreamResponseSink sink) {
+        invoke(config, sink);
+    }
+
+    private Object invoke(ApiConfig config, UpstreamResponseSink sink) {
+        String operationId = config.getOperationId();
+        RequestLog.Detail detail = requestLog.detailFor(operationId);
+        if (detail == RequestLog.Detail.NONE) {
+            return Stages.of(observations, Stages.EXECUTE, Stages.CALL, operationId)
+                .observe(() -> invoke(operationId, detail, config, sink));
+        }
+        long start = System.nanoTime();
+        Object result = null;
+        RuntimeException error = null;
+        try {
+            result = Stages.of(observations, Stages.EXECUTE, Stages.CALL, operationId)
+                .observe(() -> invoke(operationId, detail, config, sink));
+            return result;
+        } catch (RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            requestLog.logCall(detail, operationId, config, result, error, System.nanoTime() - start);
+        }
+    }
+
+    private Object invoke(String operationId, RequestLog.Detail detail, ApiConfig config, UpstreamResponseSink sink) {
+        ResponseTransformer transform = ResponseTransformer.of(config.getTransform());
+        rateLimiter.acquireCaller(config.getCaller());
+        GeneratedClient client = Stages.observe(observations, Stages.EXECUTE, Stages.CLIENT_LOOKUP, operationId,
+                () -> clientRegistry.resolve(operationId));
+        // Unless the request picks one, operations run on the engine their spec was registered for
+        ExecutionEngine engine = ExecutionEngine.of(config.getEngine(),
+                client.isGenerated() ? ExecutionEngine.GENERATED : ExecutionEngine.INTERPRETED);
+        if (engine == ExecutionEngine.GENERATED && !client.isGenerated()) {
+            throw new IllegalStateException("Operation " + operationId + " was generated for the interpreted engine only");
         }
 
         try {
             validate(config);
 
-            String operationId = config.getOperationId();
-            String httpMethod = config.getMethod() != null ? config.getMethod().toUpperCase() : "GET";
-            log.info("Invoking operation: {}, HTTP Method: {}", operationId, httpMethod);
-
-            // Set debugging
-            Method setDebuggingMethod = apiClient.getClass().getMethod("setDebugging", boolean.class);
-            setDebuggingMethod.invoke(apiClient, true);
-
-            // Apply headers
-            if (config.getHeaders() != null && !config.getHeaders().isEmpty()) {
-                Method addDefaultHeaderMethod = apiClient.getClass().getMethod("addDefaultHeader", String.class, String.class);
-                config.getHeaders().forEach((key, value) -> {
-                    try {
-                        log.debug("Adding header: {} = {}", key, value);
-                        addDefaultHeaderMethod.invoke(apiClient, key, value);
-                    } catch (Exception e) {
-                        log.error("Failed to add header {}: {}", key, e.getMessage());
-                    }
-                });
-            }
-
-            Method apiMethod = findApiMethod(operationId);
-            if (apiMethod == null) {
+            OperationPlan plan = client.getPlan(operationId, engine);
+            if (plan == null) {
                 log.error("No method found for operationId: {}", operationId);
                 throw new UnsupportedOperationException("No method found for operationId: " + operationId);
             }
 
-            Object requestBody = getRequestBody(config);
-            Object[] parameters = prepareMethodParameters(apiMethod, config.getQueryParams(), requestBody);
-            log.debug("Calling API method {} with parameters: {}", apiMethod.getName(), parameters);
-
-            StringBuilder queryString = new StringBuilder();
-            if (config.getQueryParams() != null && !config.getQueryParams().isEmpty()) {
-                queryString.append("?");
-                config.getQueryParams().forEach((key, value) -> {
-                    queryString.append(key).append("=").append(value).append("&");
+            Object[] parameters = Stages.observe(observations, Stages.EXECUTE, Stages.BIND, operationId,
+                    () -> plan.bind(config.getQueryParams(), getRequestBody(config, plan.getHttpMethod())));
+            log.debug("Calling API method {} with parameters: {}", plan.getMethodName(), parameters);
+
+            // Only plain GETs are cached; streamed and transformed responses never reach a Java object to keep
+            if (sink == null && transform == null && responseCache.isEnabled() && "get".equals(plan.getHttpMethod())) {
+                UpstreamResponseCache.Key key = responseCache.key(client.getSpecHash(), operationId,
+                        config.getQueryParams(), config.getHeaders());
+                return responseCache.get(key, exchange -> {
+                    try (RequestHeadersInterceptor.Scope conditional = ConditionalRequestInterceptor.open(exchange)) {
+                        return execute(client, plan, detail, parameters, config.getHeaders(), null, null);
+                    } catch (RuntimeException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
                 });
             }
-            log.info("Query string: {}", queryString.toString());
-
-            Object result = apiMethod.invoke(defaultApi, parameters);
-            log.info("Raw API response: {}", result);
-            return result;
-
+            return execute(client, plan, detail, parameters, config.getHeaders(), sink, transform);
+
+        } catch (UpstreamUnavailableException | RateLimitedException e) {
+            // Rejected without calling the upstream; not an error of this call to log with its stack trace
+            throw e;
+        } catch (ResponseTransformException e) {
+            log.warn("Response of {} could not be transformed: {}", operationId, e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("API call failed: {}", e.getCause() != null ? e.getCause().getMessage() : e.getMessage(), e);
             throw new RuntimeException("API call failed: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()), e);
         }
     }
 
-    private Method findApiMethod(String operationId) throws Exception {
-        log.info("Looking for method with operationId: {}", operationId);
-        Class<?> defaultApiClass = Class.forName("com.excellia.api.DefaultApi");
-        String availableMethods = Arrays.stream(defaultApiClass.getMethods())
-            .map(Method::getName)
-            .collect(Collectors.joining(", "));
-        log.info("Available methods in DefaultApi: {}", availableMethods);
-
-        for (Method method : defaultApiClass.getMethods()) {
-            if (method.getName().equalsIgnoreCase(operationId)) {
-                log.info("Found method: {}", method.getName());
-                return method;
-            }
-        }
-
-        String camelCaseOperationId = toCamelCase(operationId);
-        for (Method method : defaultApiClass.getMethods()) {
-            if (method.getName().equalsIgnoreCase(camelCaseOperationId)) {
-                log.info("Found method (camelCase): {}", method.getName());
-                return method;
-            }
-        }
-
-        log.error("No method found for operationId: {} or camelCase: {}", operationId, camelCaseOperationId);
-        return null;
-    }
-
-    private String toCamelCase(String operationId) {
-        String[] parts = operationId.split("_");
-        if (parts.length < 2) {
-            return operationId;
-        }
-        StringBuilder camelCase = new StringBuilder(parts[0]);
-        for (int i = 1; i < parts.length; i++) {
-            String part = parts[i];
-            if (!part.isEmpty()) {
-                camelCase.append(part.substring(0, 1).toUpperCase())
-                         .append(part.substring(1).toLowerCase());
-            }
-        }
-        return camelCase.toString();
-    }
-
-    private Object[] prepareMethodParameters(Method method, Map<String, String> queryParams, Object body) {
-        Parameter[] parameters = method.getParameters();
-        Object[] args = new Object[parameters.length];
-        for (int i = 0; i < parameters.length; i++) {
-            String paramName = parameters[i].getName();
-            if ("body".equals(paramName) && body != null && !body.toString().isEmpty()) {
-                args[i] = body;
-                log.debug("Mapping body parameter to: {}", body);
-            } else {
-                String queryParamKey = paramName.equals("id") && queryParams != null && queryParams.containsKey("user") ? "user" : paramName;
-                args[i] = queryParams != null ? queryParams.get(queryParamKey) : null;
-                log.debug("Mapping parameter {} (queried as {}) to value: {}", paramName, queryParamKey, args[i]);
-            }
-            if (args[i] == null && !parameters[i].getType().isPrimitive()) {
-                log.warn("Missing parameter: {}", paramName);
-            }
+    private Object execute(GeneratedClient client, OperationPlan plan, RequestLog.Detail detail, Object[] parameters,
+            Map<String, String> headers, UpstreamResponseSink sink, ResponseTransformer transform) throws Exception {
+        try (RequestHeadersInterceptor.Scope requestHeaders = RequestHeadersInterceptor.open(headers);
+                RequestHeadersInterceptor.Scope streaming = ResponseStreamingRequestFactory.open(sink, transform);
+                RequestHeadersInterceptor.Scope debug = DebugTrafficInterceptor.open(detail, plan.getOperationId())) {
+            rateLimiter.acquireUpstream(client.getUpstream());
+            // A streamed response may be partly written to the client when it fails, so it is never retried
+            Object result = resilience.call(client.getUpstream(), plan.getHttpMethod(), sink == null,
+                    () -> Stages.observe(observations, Stages.EXECUTE, Stages.UPSTREAM, plan.getOperationId(),
+                            () -> plan.invoke(parameters)));
+            // The generated method got an empty response; the transformed one was kept aside
+            return transform != null && sink == null ? transform.getResult() : result;
         }
-        return args;
     }
 
-    private Object getRequestBody(ApiConfig config) {
-        String httpMethod = config.getMethod() != null ? config.getMethod().toLowerCase() : "get";
+    private Object getRequestBody(ApiConfig config, String httpMethod) {
         if (config.getBodies() != null && config.getBodies().containsKey(httpMethod)) {
             log.debug("Using method-specific body for {}: {}", httpMethod, config.getBodies().get(httpMethod));
             return config.getBodies().get(httpMethod);
@@ -0,0 +1,22 @@
+package com.excellia.service;
+
+import java.util.Locale;
+
+// How /execute calls an operation
+public enum ExecutionEngine {
+    // Through the spec's generated and compiled client
+    GENERATED,
+    // Straight from the OpenAPI operation, with no generated code; available as soon as the spec is written
+    INTERPRETED;
+
+    public static ExecutionEngine of(String name, ExecutionEngine fallback) {
+        if (name == null || name.isBlank()) {
+            return fallback;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown engine '" + name + "', use 'generated' or 'interpreted'");
+        }
+    }
+}
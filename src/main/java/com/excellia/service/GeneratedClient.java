@@ -0,0 +1,155 @@
+package com.excellia.service;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.web.client.RestTemplate;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+
+// A compiled client for one spec, shared by every operation the spec declares.
+// The ApiClient and API instances (DefaultApi, plus one class per tag) and the per-operation invocation plans
+// are built once, when the client is loaded. Every operation also has an interpreted plan; a spec loaded without
+// generated classes has only those.
+class GeneratedClient {
+
+    static final String API_CLIENT_CLASS = "com.excellia.core.ApiClient";
+    static final String DEFAULT_API_CLASS = "com.excellia.api.DefaultApi";
+    private static final String API_PACKAGE_PREFIX = "com.excellia.api.";
+
+    private final String specHash;
+    private final String upstream;
+    private final Map<String, InvocationPlan> plans;
+    private final Map<String, InterpretedPlan> interpretedPlans;
+    private final Class<?> apiClientClass;
+    private final Object apiClient;
+    private final List<Object> apis = new ArrayList<>();
+    private volatile long lastAccess;
+
+    GeneratedClient(String specHash, OpenAPI openApi, ClassLoader classLoader, RestTemplate restTemplate,
+            JsonBodyConverter bodies) throws ReflectiveOperationException {
+        this.specHash = specHash;
+        this.upstream = upstream(openApi);
+        this.interpretedPlans = buildInterpretedPlans(openApi, upstream, restTemplate);
+        if (classLoader == null) {
+            this.apiClientClass = null;
+            this.apiClient = null;
+            this.plans = Map.of();
+            touch();
+            return;
+        }
+        if (classLoader instanceof GeneratedClientClassLoader generatedClassLoader) {
+            generatedClassLoader.loadAll();
+        }
+        this.apiClientClass = Class.forName(API_CLIENT_CLASS, true, classLoader);
+        try {
+            this.apiClient = apiClientClass.getConstructor(RestTemplate.class).newInstance(restTemplate);
+            for (String apiClassName : apiClassNames(classLoader)) {
+                Class<?> apiClass = Class.forName(apiClassName, true, classLoader);
+                apis.add(apiClass.getConstructor(apiClientClass).newInstance(apiClient));
+            }
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Failed to initialize API client: " + e.getCause().getMessage(), e.getCause());
+        }
+        this.plans = buildPlans(openApi, InvocationPlan.indexMethods(apis), bodies);
+        touch();
+    }
+
+    String getSpecHash() {
+        return specHash;
+    }
+
+    // The spec's server URL, which the upstream resilience policy is keyed by
+    String getUpstream() {
+        return upstream;
+    }
+
+    List<String> getOperationIds() {
+        return List.copyOf(interpretedPlans.keySet());
+    }
+
+    boolean isGenerated() {
+        return apiClient != null;
+    }
+
+    // Null when the operation is unknown, or has no generated method
+    OperationPlan getPlan(String operationId, ExecutionEngine engine) {
+        return engine == ExecutionEngine.INTERPRETED ? interpretedPlans.get(operationId) : plans.get(operationId);
+    }
+
+    Class<?> getApiClientClass() {
+        return apiClientClass;
+    }
+
+    Object getApiClient() {
+        return apiClient;
+    }
+
+    List<Object> getApis() {
+        return apis;
+    }
+
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+    void touch() {
+        lastAccess = System.nanoTime();
+    }
+
+    private static String upstream(OpenAPI openApi) {
+        if (openApi.getServers() == null || openApi.getServers().isEmpty() || openApi.getServers().get(0).getUrl() == null) {
+            return "/";
+        }
+        String url = openApi.getServers().get(0).getUrl();
+        return url.length() > 1 && url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private static List<String> apiClassNames(ClassLoader classLoader) {
+        if (!(classLoader instanceof GeneratedClientClassLoader generatedClassLoader)) {
+            return List.of(DEFAULT_API_CLASS);
+        }
+        List<String> names = new ArrayList<>();
+        for (String name : generatedClassLoader.getClassNames()) {
+            if (name.startsWith(API_PACKAGE_PREFIX) && name.endsWith("Api") && name.indexOf('$') < 0) {
+                names.add(name);
+            }
+        }
+        names.sort(null);
+        return names;
+    }
+
+    private static Map<String, InterpretedPlan> buildInterpretedPlans(OpenAPI openApi, String upstream,
+            RestTemplate restTemplate) {
+        Map<String, InterpretedPlan> plans = new LinkedHashMap<>();
+        for (Map.Entry<String, PathItem> path : openApi.getPaths().entrySet()) {
+            for (Map.Entry<PathItem.HttpMethod, Operation> entry : path.getValue().readOperationsMap().entrySet()) {
+                String operationId = entry.getValue().getOperationId();
+                if (operationId != null) {
+                    plans.put(operationId, InterpretedPlan.create(operationId, upstream, path.getKey(), path.getValue(),
+                            entry.getKey(), entry.getValue(), restTemplate));
+                }
+            }
+        }
+        return plans;
+    }
+
+    private static Map<String, InvocationPlan> buildPlans(OpenAPI openApi, InvocationPlan.MethodIndex methods,
+            JsonBodyConverter bodies) throws IllegalAccessException {
+        Map<String, InvocationPlan> plans = new LinkedHashMap<>();
+        for (PathItem pathItem : openApi.getPaths().values()) {
+            for (Map.Entry<PathItem.HttpMethod, Operation> entry : pathItem.readOperationsMap().entrySet()) {
+                String operationId = entry.getValue().getOperationId();
+                if (operationId != null) {
+                    plans.put(operationId, InvocationPlan.create(operationId, entry.getKey(), entry.getValue(), methods, bodies));
+                }
+            }
+        }
+        return plans;
+    }
+}
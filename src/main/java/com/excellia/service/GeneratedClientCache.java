@@ -0,0 +1,256 @@
+package com.excellia.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+// Content-addressed store of generated clients: one directory per spec hash, evicted LRU by count and size.
+// Specs registered for the interpreted engine are entries too, holding only the spec until code is generated.
+@Service
+public class GeneratedClientCache {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneratedClientCache.class);
+    private static final String SPEC_FILE = "openapi.yaml";
+    private static final String CLIENT_DIR = "client";
+    private static final String COMPLETE_MARKER = ".complete";
+    private static final String SPEC_ONLY_MARKER = ".spec-only";
+    private static final String CLASSES_FILE = "classes.pack";
+    private static final String INDEX_FILE = ".registry.json";
+    private static final String WORKSPACE_DIR = ".workspace";
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path rootDir;
+    private final int maxEntries;
+    private final long maxBytes;
+
+    // spec hash -> artifact size in bytes, in access order
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+    public GeneratedClientCache(
+            @Value("${excellia.codegen.cache.dir:target/generated-clients}") String rootDir,
+            @Value("${excellia.codegen.cache.max-entries:100}") int maxEntries,
+            @Value("${excellia.codegen.cache.max-size-mb:512}") long maxSizeMb) {
+        this.rootDir = Paths.get(rootDir);
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        loadExistingEntries();
+    }
+
+    public static String hash(String spec) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(spec.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // True when the spec's client has been generated
+    public synchronized boolean contains(String specHash) {
+        if (!entries.containsKey(specHash)) {
+            return false;
+        }
+        if (!Files.exists(artifactDir(specHash).resolve(COMPLETE_MARKER))) {
+            if (Files.exists(artifactDir(specHash).resolve(SPEC_ONLY_MARKER))) {
+                return false;
+            }
+            log.warn("Cached client {} is missing on disk, dropping it", specHash);
+            totalBytes -= entries.remove(specHash);
+            return false;
+        }
+        return true;
+    }
+
+    // True when the spec is stored, with or without a generated client
+    public synchronized boolean containsSpec(String specHash) {
+        return contains(specHash) || entries.containsKey(specHash) && Files.exists(specFile(specHash));
+    }
+
+    // Serializes work on one spec's artifact directory without blocking other specs.
+    // A j.u.c lock rather than a monitor, so virtual threads waiting on a long generation do not pin their carrier.
+    public Lock lockFor(String specHash) {
+        return locks[Math.floorMod(specHash.hashCode(), LOCK_STRIPES)];
+    }
+
+    public Path artifactDir(String specHash) {
+        return rootDir.resolve(specHash);
+    }
+
+    public Path specFile(String specHash) {
+        return artifactDir(specHash).resolve(SPEC_FILE);
+    }
+
+    public Path clientDir(String specHash) {
+        return artifactDir(specHash).resolve(CLIENT_DIR);
+    }
+
+    // The client's compiled classes, stored after its first compilation
+    public Path classesFile(String specHash) {
+        return artifactDir(specHash).resolve(CLASSES_FILE);
+    }
+
+    // Which specs are registered for which operations, kept next to the artifacts it refers to
+    public Path indexFile() {
+        return rootDir.resolve(INDEX_FILE);
+    }
+
+    // Long-lived generation output shared by every version of one spec lineage; not an artifact, never evicted
+    public Path workspaceDir(String lineageKey) {
+        return rootDir.resolve(WORKSPACE_DIR).resolve(lineageKey);
+    }
+
+    public synchronized void commit(String specHash) {
+        Path artifactDir = artifactDir(specHash);
+        try {
+            Files.createFile(artifactDir.resolve(COMPLETE_MARKER));
+            Files.deleteIfExists(artifactDir.resolve(SPEC_ONLY_MARKER));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to mark client " + specHash + " as complete", e);
+        }
+        track(specHash, "generated client");
+    }
+
+    // Keeps a written spec that has no generated client, for the interpreted engine
+    public synchronized void commitSpec(String specHash) {
+        if (containsSpec(specHash)) {
+            // Only refreshes its place in the LRU order
+            entries.get(specHash);
+            return;
+        }
+        Path artifactDir = artifactDir(specHash);
+        if (!Files.exists(specFile(specHash))) {
+            throw new IllegalStateException("Spec " + specHash + " was not written");
+        }
+        try {
+            if (!Files.exists(artifactDir.resolve(SPEC_ONLY_MARKER))) {
+                Files.createFile(artifactDir.resolve(SPEC_ONLY_MARKER));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to mark spec " + specHash + " as stored", e);
+        }
+        track(specHash, "spec");
+    }
+
+    private void track(String specHash, String kind) {
+        Path artifactDir = artifactDir(specHash);
+        long size = directorySize(artifactDir);
+        Long previous = entries.put(specHash, size);
+        totalBytes += size - (previous != null ? previous : 0L);
+        log.info("Cached {} {} ({} KB, {} entries, {} KB total)",
+                kind, specHash, size / 1024, entries.size(), totalBytes / 1024);
+        evictIfNecessary(specHash);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evictIfNecessary(String keep) {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalBytes > maxBytes) && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            it.remove();
+            totalBytes -= eldest.getValue();
+            deleteDirectory(artifactDir(eldest.getKey()));
+            log.info("Evicted generated client {}", eldest.getKey());
+        }
+    }
+
+    private void loadExistingEntries() {
+        if (!Files.isDirectory(rootDir)) {
+            return;
+        }
+        List<Path> dirs;
+        try (Stream<Path> children = Files.list(rootDir)) {
+            dirs = children.filter(Files::isDirectory)
+                .filter(dir -> !dir.getFileName().toString().startsWith("."))
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.warn("Failed to scan client cache at {}: {}", rootDir, e.getMessage());
+            return;
+        }
+
+        dirs.stream()
+            .filter(dir -> marker(dir) == null)
+            .forEach(dir -> {
+                log.info("Removing incomplete client artifact {}", dir);
+                deleteDirectory(dir);
+            });
+
+        dirs.stream()
+            .filter(dir -> marker(dir) != null)
+            .sorted(Comparator.comparing(dir -> lastModified(marker(dir))))
+            .forEach(dir -> {
+                long size = directorySize(dir);
+                entries.put(dir.getFileName().toString(), size);
+                totalBytes += size;
+            });
+        evictIfNecessary(null);
+        log.info("Loaded {} cached clients from {}", entries.size(), rootDir);
+    }
+
+    private static Path marker(Path dir) {
+        for (String name : List.of(COMPLETE_MARKER, SPEC_ONLY_MARKER)) {
+            if (Files.exists(dir.resolve(name))) {
+                return dir.resolve(name);
+            }
+        }
+        return null;
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static long directorySize(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to size " + dir, e);
+        }
+    }
+
+    static void deleteDirectory(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.warn("Failed to delete {}: {}", dir, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.excellia.service;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Child-first loader for one generated client, so clients of different specs can share class names.
+class GeneratedClientClassLoader extends ClassLoader {
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final String specHash;
+    private final List<String> classNames;
+    private final Map<String, ByteBuffer> classes;
+
+    // Class bytes may be heap buffers straight from the compiler or slices of a mapped ClassPack
+    GeneratedClientClassLoader(String specHash, Map<String, ByteBuffer> classes, ClassLoader parent) {
+        super("generated-client-" + specHash, parent);
+        this.specHash = specHash;
+        this.classNames = List.copyOf(classes.keySet());
+        this.classes = new ConcurrentHashMap<>(classes);
+    }
+
+    String getSpecHash() {
+        return specHash;
+    }
+
+    // Every class compiled for the client, defined yet or not
+    List<String> getClassNames() {
+        return classNames;
+    }
+
+    // Defines every generated class now instead of on first use
+    void loadAll() throws ClassNotFoundException {
+        for (String name : List.copyOf(classes.keySet())) {
+            loadClass(name, false);
+        }
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loaded = findLoadedClass(name);
+            if (loaded == null) {
+                ByteBuffer bytes = classes.remove(name);
+                loaded = bytes != null
+                    ? defineClass(name, bytes.duplicate(), null)
+                    : getParent().loadClass(name);
+            }
+            if (resolve) {
+                resolveClass(loaded);
+            }
+            return loaded;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.excellia.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+// Compiles generated client sources in memory and loads each client into its own class loader. The compiled classes
+// are stored with the client's artifacts, so later loads, after a restart too, skip javac.
+@Service
+public class GeneratedClientCompiler {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneratedClientCompiler.class);
+    private static final String SOURCE_ROOT = "src/main/java";
+    private static final String BOOT_LIB_PREFIX = "BOOT-INF/lib/";
+    private static final String BOOT_CLASSES_PREFIX = "BOOT-INF/classes/";
+    private static final int MAX_REPORTED_ERRORS = 5;
+    private static final String CORE_PACKAGE_DIR = "com/excellia/core";
+    private static final String CORE_CLASSES_DIR = ".core-classes";
+    private static final String COMPLETE_MARKER = ".complete";
+
+    private final GeneratedClientCache clientCache;
+    // Both kept across compilations so the classpath and javac's index of its jars are built only once
+    private String classpath;
+    private StandardJavaFileManager standardManager;
+    private final ReentrantLock compileLock = new ReentrantLock();
+    // core source hash -> compiled core classes; one entry per distinct server/security setup
+    private final Map<String, Map<String, byte[]>> coreClasses = new ConcurrentHashMap<>();
+
+    public GeneratedClientCompiler(GeneratedClientCache clientCache) {
+        this.clientCache = clientCache;
+    }
+
+    public ClassLoader load(String specHash) {
+        long start = System.nanoTime();
+        ClassLoader stored = loadStored(specHash);
+        if (stored != null) {
+            log.info("Loaded stored classes for spec {} in {} ms", specHash, (System.nanoTime() - start) / 1_000_000);
+            return stored;
+        }
+        Path sourceRoot = clientCache.clientDir(specHash).resolve(SOURCE_ROOT);
+        Path coreRoot = sourceRoot.resolve(CORE_PACKAGE_DIR);
+        List<File> sources = listSources(sourceRoot);
+        List<File> coreSources = sources.stream().filter(file -> file.toPath().startsWith(coreRoot)).toList();
+        List<File> specSources = sources.stream().filter(file -> !file.toPath().startsWith(coreRoot)).toList();
+
+        String coreKey;
+        Map<String, byte[]> core;
+        Map<String, byte[]> specClasses;
+        compileLock.lock();
+        try {
+            coreKey = hashSources(coreSources);
+            core = coreClasses(coreKey, coreSources);
+            specClasses = compileLocked(specSources, coreClassesDir(coreKey));
+        } finally {
+            compileLock.unlock();
+        }
+        log.info("Compiled {} classes for spec {} in {} ms ({} core classes shared)",
+                specClasses.size(), specHash, (System.nanoTime() - start) / 1_000_000, core.size());
+        try {
+            ClassPack.write(clientCache.classesFile(specHash), coreKey, specClasses);
+        } catch (IOException e) {
+            // Only costs a recompilation on the next load
+            log.warn("Failed to store compiled classes for spec {}: {}", specHash, e.getMessage());
+        }
+        Map<String, ByteBuffer> classes = wrap(core);
+        classes.putAll(wrap(specClasses));
+        return new GeneratedClientClassLoader(specHash, classes, GeneratedClientCompiler.class.getClassLoader());
+    }
+
+    // Null when the spec's classes were never stored, or are unusable now; the caller compiles them instead
+    private ClassLoader loadStored(String specHash) {
+        Path file = clientCache.classesFile(specHash);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            ClassPack pack = ClassPack.read(file);
+            Map<String, byte[]> core = pack != null ? storedCoreClasses(pack.getCoreKey()) : null;
+            if (core == null) {
+                log.info("Stored classes for spec {} are out of date, recompiling", specHash);
+                return null;
+            }
+            Map<String, ByteBuffer> classes = wrap(core);
+            classes.putAll(pack.getClasses());
+            return new GeneratedClientClassLoader(specHash, classes, GeneratedClientCompiler.class.getClassLoader());
+        } catch (IOException e) {
+            log.warn("Ignoring stored classes for spec {}: {}", specHash, e.getMessage());
+            return null;
+        }
+    }
+
+    // Core classes are only read here, never compiled, so this needs no compileLock
+    private Map<String, byte[]> storedCoreClasses(String coreKey) {
+        Map<String, byte[]> cached = coreClasses.get(coreKey);
+        if (cached != null) {
+            return cached;
+        }
+        Path coreDir = coreClassesDir(coreKey);
+        if (!Files.exists(coreDir.resolve(COMPLETE_MARKER))) {
+            return null;
+        }
+        Map<String, byte[]> classes = coreClasses.putIfAbsent(coreKey, readClasses(coreDir));
+        return classes != null ? classes : coreClasses.get(coreKey);
+    }
+
+    private static Map<String, ByteBuffer> wrap(Map<String, byte[]> classes) {
+        Map<String, ByteBuffer> wrapped = new HashMap<>(classes.size() * 2);
+        classes.forEach((name, bytes) -> wrapped.put(name, ByteBuffer.wrap(bytes)));
+        return wrapped;
+    }
+
+    // The supporting classes under core only change with the spec's servers and security schemes, so they are
+    // compiled once per distinct content and kept, in memory and on disk, for every spec that generates them again
+    private Map<String, byte[]> coreClasses(String coreKey, List<File> coreSources) {
+        Map<String, byte[]> cached = coreClasses.get(coreKey);
+        if (cached != null) {
+            return cached;
+        }
+        Path coreDir = coreClassesDir(coreKey);
+        Map<String, byte[]> classes = Files.exists(coreDir.resolve(COMPLETE_MARKER))
+            ? readClasses(coreDir)
+            : writeClasses(coreDir, compileLocked(coreSources, null));
+        coreClasses.put(coreKey, classes);
+        return classes;
+    }
+
+    private Path coreClassesDir(String coreKey) {
+        return clientCache.artifactDir(CORE_CLASSES_DIR).resolve(coreKey);
+    }
+
+    private static List<File> listSources(Path sourceRoot) {
+        try (Stream<Path> files = Files.walk(sourceRoot)) {
+            return files.filter(file -> file.toString().endsWith(".java"))
+                .sorted()
+                .map(Path::toFile)
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new IllegalStateException("Generated sources not found at " + sourceRoot + ". Call /generate first.", e);
+        }
+    }
+
+    private static String hashSources(List<File> sources) {
+        StringBuilder content = new StringBuilder();
+        for (File source : sources) {
+            try {
+                content.append(source.getName()).append('\0').append(Files.readString(source.toPath())).append('\0');
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read " + source, e);
+            }
+        }
+        return GeneratedClientCache.hash(content.toString());
+    }
+
+    private static Map<String, byte[]> readClasses(Path dir) {
+        Map<String, byte[]> classes = new HashMap<>();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.filter(f -> f.toString().endsWith(".class"))::iterator) {
+                String relative = dir.relativize(file).toString();
+                String className = relative.substring(0, relative.length() - ".class".length())
+                    .replace(File.separatorChar, '.');
+                classes.put(className, Files.readAllBytes(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read compiled core classes from " + dir, e);
+        }
+        return classes;
+    }
+
+    private static Map<String, byte[]> writeClasses(Path dir, Map<String, byte[]> classes) {
+        try {
+            GeneratedClientCache.deleteDirectory(dir);
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                Path file = dir.resolve(entry.getKey().replace('.', File.separatorChar) + ".class");
+                Files.createDirectories(file.getParent());
+                Files.write(file, entry.getValue());
+            }
+            Files.createFile(dir.resolve(COMPLETE_MARKER));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store compiled core classes in " + dir, e);
+        }
+        return classes;
+    }
+
+    // Callers hold compileLock: the shared file manager is not thread-safe
+    private Map<String, byte[]> compileLocked(List<File> sources, Path extraClasspath) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("No Java compiler available. Run the service on a JDK, not a JRE.");
+        }
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Map<String, byte[]> classes = new ConcurrentHashMap<>();
+        if (standardManager == null) {
+            classpath = resolveClasspath();
+            standardManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+        }
+        String effectiveClasspath = extraClasspath == null
+            ? classpath
+            : extraClasspath + File.pathSeparator + classpath;
+        List<String> options = List.of("-classpath", effectiveClasspath, "-parameters", "-proc:none", "-nowarn");
+        boolean success = compiler.getTask(null, new InMemoryFileManager(standardManager, classes), diagnostics,
+                options, null, standardManager.getJavaFileObjectsFromFiles(sources)).call();
+        if (!success) {
+            String errors = diagnostics.getDiagnostics().stream()
+                .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                .limit(MAX_REPORTED_ERRORS)
+                .map(d -> d.getSource() + ":" + d.getLineNumber() + " " + d.getMessage(null))
+                .collect(Collectors.joining("; "));
+            throw new IllegalStateException("Failed to compile generated client: " + errors);
+        }
+        return classes;
+    }
+
+    // javac cannot read nested jars, so an executable Spring Boot jar is unpacked once next to the client cache
+    private String resolveClasspath() {
+        List<String> entries = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (entry.endsWith(".jar") && isBootJar(entry)) {
+                entries.addAll(unpackBootJar(Paths.get(entry)));
+            } else {
+                entries.add(entry);
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static boolean isBootJar(String path) {
+        try (JarFile jar = new JarFile(path)) {
+            return jar.getEntry(BOOT_LIB_PREFIX) != null || jar.getEntry(BOOT_CLASSES_PREFIX) != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private List<String> unpackBootJar(Path bootJar) {
+        Path target = clientCache.artifactDir(".classpath");
+        List<String> entries = new ArrayList<>();
+        entries.add(target.resolve("classes").toString());
+        try (JarFile jar = new JarFile(bootJar.toFile())) {
+            Enumeration<JarEntry> jarEntries = jar.entries();
+            while (jarEntries.hasMoreElements()) {
+                JarEntry entry = jarEntries.nextElement();
+                Path out;
+                if (entry.getName().startsWith(BOOT_LIB_PREFIX) && entry.getName().endsWith(".jar")) {
+                    out = target.resolve("lib").resolve(entry.getName().substring(BOOT_LIB_PREFIX.length()));
+                    entries.add(out.toString());
+                } else if (entry.getName().startsWith(BOOT_CLASSES_PREFIX) && !entry.isDirectory()) {
+                    out = target.resolve("classes").resolve(entry.getName().substring(BOOT_CLASSES_PREFIX.length()));
+                } else {
+                    continue;
+                }
+                if (!Files.exists(out) || Files.size(out) != entry.getSize()) {
+                    Files.createDirectories(out.getParent());
+                    try (InputStream in = jar.getInputStream(entry)) {
+                        Files.copy(in, out, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to unpack " + bootJar + " for in-process compilation", e);
+        }
+        log.info("Unpacked {} classpath entries from {} into {}", entries.size(), bootJar, target);
+        return entries;
+    }
+
+    private static final class InMemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, byte[]> classes;
+
+        InMemoryFileManager(StandardJavaFileManager fileManager, Map<String, byte[]> classes) {
+            super(fileManager);
+            this.classes = classes;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                FileObject sibling) throws IOException {
+            if (location != StandardLocation.CLASS_OUTPUT || kind != JavaFileObject.Kind.CLASS) {
+                return super.getJavaFileForOutput(location, className, kind, sibling);
+            }
+            return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    return new ByteArrayOutputStream() {
+                        @Override
+                        public void close() {
+                            classes.put(className, toByteArray());
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.excellia.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.swagger.v3.oas.models.OpenAPI;
+
+// Live generated clients, looked up by the operationIds their specs declare. Specs registered for the interpreted
+// engine only are loaded from their spec file alone, without generated classes. Registrations are kept in an index
+// file next to the artifacts, so after a restart every operation resolves again and its client loads on first use.
+@Service
+public class GeneratedClientRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneratedClientRegistry.class);
+
+    private final GeneratedClientCache clientCache;
+    private final GeneratedClientCompiler clientCompiler;
+    private final ObjectMapper objectMapper;
+    private final ClientHttpRequestFactory requestFactory;
+    private final JsonBodies jsonBodies;
+    private final int maxLoadedClients;
+
+    // operationId -> spec hash; stays valid when the client itself is evicted from memory
+    private final Map<String, String> specByOperation = new ConcurrentHashMap<>();
+    private final Map<String, GeneratedClient> clients = new ConcurrentHashMap<>();
+    // spec hashes registered without generated code
+    private final Set<String> interpretedSpecs = ConcurrentHashMap.newKeySet();
+    // spec hash -> engine and operations, in registration order; the content of the index file
+    private final LinkedHashMap<String, Registration> registrations = new LinkedHashMap<>();
+    private final RequestHeadersInterceptor requestHeadersInterceptor = new RequestHeadersInterceptor();
+    private final ConditionalRequestInterceptor conditionalRequestInterceptor = new ConditionalRequestInterceptor();
+    private final DebugTrafficInterceptor debugTrafficInterceptor = new DebugTrafficInterceptor();
+
+    public GeneratedClientRegistry(
+            GeneratedClientCache clientCache,
+            GeneratedClientCompiler clientCompiler,
+            ObjectMapper objectMapper,
+            ClientHttpRequestFactory requestFactory,
+            JsonBodies jsonBodies,
+            @Value("${excellia.clients.max-loaded:200}") int maxLoadedClients) {
+        this.clientCache = clientCache;
+        this.clientCompiler = clientCompiler;
+        this.objectMapper = objectMapper;
+        this.requestFactory = requestFactory;
+        this.jsonBodies = jsonBodies;
+        this.maxLoadedClients = maxLoadedClients;
+        restoreIndex();
+    }
+
+    public void register(String specHash) {
+        // A spec served interpreted until now is reloaded with its generated classes
+        if (interpretedSpecs.remove(specHash)) {
+            clients.remove(specHash);
+        }
+        index(specHash, ExecutionEngine.GENERATED);
+    }
+
+    // A spec that already has generated code keeps it, and serves both engines
+    public void registerInterpreted(String specHash) {
+        if (clientCache.contains(specHash)) {
+            index(specHash, ExecutionEngine.GENERATED);
+            return;
+        }
+        clientCache.commitSpec(specHash);
+        interpretedSpecs.add(specHash);
+        index(specHash, ExecutionEngine.INTERPRETED);
+    }
+
+    private void index(String specHash, ExecutionEngine engine) {
+        GeneratedClient client = load(specHash);
+        Set<String> replaced = new HashSet<>();
+        for (String operationId : client.getOperationIds()) {
+            String previous = specByOperation.put(operationId, specHash);
+            if (previous != null && !previous.equals(specHash)) {
+                log.info("Operation {} now served by spec {} (was {})", operationId, specHash, previous);
+                replaced.add(previous);
+            }
+        }
+        synchronized (registrations) {
+            registrations.remove(specHash);
+            registrations.put(specHash, new Registration(engine, client.getOperationIds()));
+            // Specs none of whose operations resolve to them any more are left out of the index
+            for (String previous : replaced) {
+                Registration registration = registrations.get(previous);
+                if (registration != null && registration.operations().stream().noneMatch(id -> previous.equals(specByOperation.get(id)))) {
+                    registrations.remove(previous);
+                }
+            }
+            writeIndex();
+        }
+        log.info("Registered spec {} with {} operations", specHash, client.getOperationIds().size());
+        log.debug("Spec {} operations: {}", specHash, client.getOperationIds());
+    }
+
+    // Loads the most recently registered clients in the background, so the first calls after a restart find them
+    // ready; any others load on first use
+    public void preload(int threads) {
+        List<String> recent;
+        synchronized (registrations) {
+            recent = new ArrayList<>(registrations.keySet());
+        }
+        Collections.reverse(recent);
+        recent = recent.subList(0, Math.min(recent.size(), maxLoadedClients));
+        if (threads <= 0 || recent.isEmpty()) {
+            return;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "client-preload-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        CompletableFuture<?>[] loads = recent.stream()
+            .map(specHash -> CompletableFuture.runAsync(() -> {
+                try {
+                    load(specHash);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to preload client for spec {}: {}", specHash, e.getMessage());
+                }
+            }, executor))
+            .toArray(CompletableFuture<?>[]::new);
+        executor.shutdown();
+        int count = recent.size();
+        CompletableFuture.allOf(loads).thenRun(() -> log.info("Preloaded {} clients in {} ms", count,
+                (System.nanoTime() - start) / 1_000_000));
+    }
+
+    public boolean hasOperation(String operationId) {
+        return specByOperation.containsKey(operationId);
+    }
+
+    GeneratedClient resolve(String operationId) {
+        String specHash = specByOperation.get(operationId);
+        if (specHash == null) {
+            throw new IllegalStateException("No generated client registered for operation " + operationId);
+        }
+        return load(specHash);
+    }
+
+    public int loadedClients() {
+        return clients.size();
+    }
+
+    private GeneratedClient load(String specHash) {
+        GeneratedClient client = clients.get(specHash);
+        if (client == null) {
+            client = clients.computeIfAbsent(specHash, this::compile);
+            evictIfNecessary();
+        }
+        client.touch();
+        return client;
+    }
+
+    private GeneratedClient compile(String specHash) {
+        if (interpretedSpecs.contains(specHash)) {
+            if (!clientCache.containsSpec(specHash)) {
+                throw new IllegalStateException("Spec " + specHash + " is no longer stored. Call /generate first.");
+            }
+            try {
+                RestTemplate restTemplate = newRestTemplate();
+                return new GeneratedClient(specHash, readSpec(clientCache.specFile(specHash)), null, restTemplate,
+                        jsonBodies.converterFor(restTemplate));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to load spec " + specHash, e);
+            }
+        }
+        if (!clientCache.contains(specHash)) {
+            throw new IllegalStateException("Generated client for spec " + specHash + " is no longer cached. Call /generate first.");
+        }
+        OpenAPI openApi = readSpec(clientCache.specFile(specHash));
+        try {
+            RestTemplate restTemplate = newRestTemplate();
+            return new GeneratedClient(specHash, openApi, clientCompiler.load(specHash), restTemplate,
+                    jsonBodies.converterFor(restTemplate));
+        } catch (ClassNotFoundException e) {
+            log.error("Generated API classes not found for spec {}: {}", specHash, e.getMessage());
+            throw new IllegalStateException("Generated API classes not found for spec " + specHash, e);
+        } catch (ReflectiveOperationException e) {
+            log.error("Failed to initialize API client for spec {}: {}", specHash, e.getMessage());
+            throw new IllegalStateException("Failed to initialize API client for spec " + specHash, e);
+        }
+    }
+
+    // Same values-only URI encoding as the generated ApiClient's own template, but on the shared pooled transport,
+    // with request-scoped headers, cache validators, streaming and per-operation debug logging
+    private RestTemplate newRestTemplate() {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.setRequestFactory(new ResponseStreamingRequestFactory(requestFactory, jsonBodies.jsonFactory()));
+        DefaultUriBuilderFactory uriBuilderFactory = new DefaultUriBuilderFactory();
+        uriBuilderFactory.setEncodingMode(DefaultUriBuilderFactory.EncodingMode.VALUES_ONLY);
+        restTemplate.setUriTemplateHandler(uriBuilderFactory);
+        restTemplate.getInterceptors().add(requestHeadersInterceptor);
+        restTemplate.getInterceptors().add(conditionalRequestInterceptor);
+        // Last, so it logs the request as sent, with the headers and validators added above
+        restTemplate.getInterceptors().add(debugTrafficInterceptor);
+        return restTemplate;
+    }
+
+    // Unloaded clients keep their operation mappings and are recompiled from the artifact cache on next use
+    private synchronized void evictIfNecessary() {
+        while (clients.size() > maxLoadedClients) {
+            clients.values().stream()
+                .min(Comparator.comparingLong(GeneratedClient::getLastAccess))
+                .ifPresent(eldest -> {
+                    clients.remove(eldest.getSpecHash(), eldest);
+                    log.info("Unloaded generated client for spec {}", eldest.getSpecHash());
+                });
+        }
+    }
+
+    // Written to a temp file and moved over the old index, so a crash never leaves a partial one
+    private void writeIndex() {
+        Path indexFile = clientCache.indexFile();
+        try {
+            Files.createDirectories(indexFile.getParent());
+            Path tempPath = Files.createTempFile(indexFile.getParent(), "registry", ".json.tmp");
+            try {
+                objectMapper.writeValue(tempPath.toFile(), registrations);
+                Files.move(tempPath, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempPath);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write registration index {}: {}", indexFile, e.getMessage());
+        }
+    }
+
+    // Only reads the index: clients are loaded on first use, or by preload
+    private void restoreIndex() {
+        Path indexFile = clientCache.indexFile();
+        if (!Files.exists(indexFile)) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<String, Registration> stored;
+        try {
+            stored = objectMapper.readValue(indexFile.toFile(), new TypeReference<LinkedHashMap<String, Registration>>() { });
+        } catch (IOException e) {
+            log.warn("Failed to read registration index {}, specs must be generated again: {}", indexFile, e.getMessage());
+            return;
+        }
+        int operations = 0;
+        for (Map.Entry<String, Registration> entry : stored.entrySet()) {
+            String specHash = entry.getKey();
+            Registration registration = entry.getValue();
+            boolean interpreted = registration.engine() == ExecutionEngine.INTERPRETED && !clientCache.contains(specHash);
+            if (interpreted ? !clientCache.containsSpec(specHash) : !clientCache.contains(specHash)) {
+                log.info("Dropping registration of spec {}, its artifacts were evicted", specHash);
+                continue;
+            }
+            if (interpreted) {
+                interpretedSpecs.add(specHash);
+            }
+            registration.operations().forEach(operationId -> specByOperation.put(operationId, specHash));
+            registrations.put(specHash, registration);
+            operations += registration.operations().size();
+        }
+        log.info("Restored {} registered specs ({} operations) from {} in {} ms", registrations.size(), operations,
+                indexFile, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    record Registration(ExecutionEngine engine, List<String> operations) {
+    }
+
+    private static OpenAPI readSpec(Path specFile) {
+        OpenAPI openApi = OpenApiDocuments.parse(specFile).getOpenAPI();
+        if (openApi.getPaths() == null) {
+            throw new IllegalStateException("Failed to read spec " + specFile);
+        }
+        return openApi;
+    }
+}
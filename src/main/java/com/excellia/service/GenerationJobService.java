@@ -0,0 +1,183 @@
+package com.excellia.service;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.excellia.dto.ApiConfig;
+import com.excellia.dto.GenerationJob;
+
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
+
+// Runs /generate work (spec write, codegen, compile and register) on a small bounded pool, off the request thread.
+// Submissions of a spec that is already queued, running or generated get the existing job back. Specs for the
+// interpreted engine are only written and registered.
+@Service
+public class GenerationJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(GenerationJobService.class);
+
+    private final OpenApiGeneratorService openApiGeneratorService;
+    private final OpenApiCodeGenLibraryService codeGenLibraryService;
+    private final DynamicApiCallerService dynamicApiCallerService;
+    private final GeneratedClientCache clientCache;
+    private final ObservationRegistry observations;
+    private final ThreadPoolExecutor executor;
+    private final int maxRetainedJobs;
+    private final ExecutionEngine defaultEngine;
+
+    // spec hash -> latest job for it
+    private final Map<String, GenerationJob> jobs = new ConcurrentHashMap<>();
+
+    public GenerationJobService(
+            OpenApiGeneratorService openApiGeneratorService,
+            OpenApiCodeGenLibraryService codeGenLibraryService,
+            DynamicApiCallerService dynamicApiCallerService,
+            GeneratedClientCache clientCache,
+            ObservationRegistry observations,
+            @Value("${excellia.generation.threads:2}") int threads,
+            @Value("${excellia.generation.queue-capacity:50}") int queueCapacity,
+            @Value("${excellia.generation.max-retained-jobs:500}") int maxRetainedJobs,
+            @Value("${excellia.execution.engine:generated}") String defaultEngine) {
+        this.openApiGeneratorService = openApiGeneratorService;
+        this.codeGenLibraryService = codeGenLibraryService;
+        this.dynamicApiCallerService = dynamicApiCallerService;
+        this.clientCache = clientCache;
+        this.observations = observations;
+        this.maxRetainedJobs = maxRetainedJobs;
+        this.defaultEngine = ExecutionEngine.of(defaultEngine, ExecutionEngine.GENERATED);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> new Thread(task, "codegen-" + threadCount.incrementAndGet()));
+    }
+
+    // Only builds the spec (to learn its hash) on the caller's thread; throws RejectedExecutionException
+    // when the queue is full
+    public GenerationJob submit(ApiConfig config) {
+        String operationId = config.getOperationId();
+        ExecutionEngine engine = ExecutionEngine.of(config.getEngine(), defaultEngine);
+        SpecDocument spec = Stages.observe(observations, Stages.GENERATION, Stages.SPEC_BUILD, operationId,
+                () -> openApiGeneratorService.buildSpec(config));
+        // Specs for the same upstream URL share a generation workspace, so a changed spec only rewrites what changed
+        return enqueue(spec.specHash(), operationId, engine, () -> {
+            Stages.run(observations, Stages.GENERATION, Stages.SPEC_WRITE, operationId,
+                    () -> openApiGeneratorService.writeSpec(spec));
+            if (engine == ExecutionEngine.GENERATED) {
+                Stages.run(observations, Stages.GENERATION, Stages.CODEGEN, operationId,
+                        () -> codeGenLibraryService.generateCode(spec, config.getUrl()));
+            }
+        });
+    }
+
+    // An imported spec is already stored, so a queued import holds only its hash, not the parsed document
+    public GenerationJob submitImport(OpenApiImportService.ImportedSpec imported, String engineName) {
+        ExecutionEngine engine = ExecutionEngine.of(engineName, defaultEngine);
+        return enqueue(imported.specHash(), null, engine, () -> {
+            if (engine == ExecutionEngine.GENERATED) {
+                Stages.run(observations, Stages.GENERATION, Stages.CODEGEN, OpenApiImportService.OPERATION,
+                        () -> codeGenLibraryService.generateCode(imported.specHash(), imported.lineage()));
+            }
+        });
+    }
+
+    public GenerationJob get(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    private GenerationJob enqueue(String specHash, String operationId, ExecutionEngine engine, GenerationStep generation) {
+        GenerationJob[] created = new GenerationJob[1];
+        GenerationJob job = jobs.compute(specHash, (hash, existing) -> {
+            if (existing != null && isReusable(existing, engine)) {
+                return existing;
+            }
+            created[0] = new GenerationJob(hash, operationId, engine.name().toLowerCase(Locale.ROOT));
+            return created[0];
+        });
+        if (created[0] == null) {
+            log.info("Generation of spec {} already {}, merging submission", specHash, job.getStatus());
+            return job;
+        }
+
+        try {
+            executor.execute(() -> run(created[0], generation));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(specHash, created[0]);
+            throw e;
+        }
+        log.info("Queued generation job {} for {}", specHash, operationId != null ? "operation " + operationId : "imported spec");
+        pruneFinishedJobs();
+        return job;
+    }
+
+    private void run(GenerationJob job, GenerationStep generation) {
+        job.markRunning();
+        String operationId = job.getOperationId() != null ? job.getOperationId() : OpenApiImportService.OPERATION;
+        try {
+            Stages.run(observations, Stages.GENERATION, Stages.JOB, operationId, () -> {
+                generation.run();
+                Stages.run(observations, Stages.GENERATION, Stages.COMPILE_LOAD, operationId,
+                        () -> dynamicApiCallerService.registerSpec(job.getId(), engineOf(job)));
+            });
+            job.markSucceeded();
+            log.info("Generation complete for {} (spec {}) in {} ms",
+                    job.getOperationId() != null ? "operation: " + job.getOperationId() : "imported spec",
+                    job.getId(), job.getFinishedAt() - job.getStartedAt());
+        } catch (Exception e) {
+            log.error("Generation job {} failed: {}", job.getId(), e.getMessage(), e);
+            job.markFailed(e.getMessage());
+        }
+    }
+
+    // Failed jobs are retried on resubmission, and so are finished ones whose artifacts were evicted since.
+    // A generated spec serves both engines, an interpreted one needs a new job to get generated code.
+    private boolean isReusable(GenerationJob job, ExecutionEngine engine) {
+        boolean generated = engineOf(job) == ExecutionEngine.GENERATED;
+        if (engine == ExecutionEngine.GENERATED && !generated) {
+            return false;
+        }
+        return switch (job.getStatus()) {
+            case QUEUED, RUNNING -> true;
+            case SUCCEEDED -> generated ? clientCache.contains(job.getId()) : clientCache.containsSpec(job.getId());
+            case FAILED -> false;
+        };
+    }
+
+    private static ExecutionEngine engineOf(GenerationJob job) {
+        return ExecutionEngine.of(job.getEngine(), ExecutionEngine.GENERATED);
+    }
+
+    private void pruneFinishedJobs() {
+        int excess = jobs.size() - maxRetainedJobs;
+        if (excess <= 0) {
+            return;
+        }
+        jobs.values().stream()
+            .filter(GenerationJob::isFinished)
+            .sorted(Comparator.comparingLong(GenerationJob::getFinishedAt))
+            .limit(excess)
+            .forEach(finished -> jobs.remove(finished.getId(), finished));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface GenerationStep {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,220 @@
+package com.excellia.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilder;
+
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+
+// Calls one OpenAPI operation without generated code. The request the generated client would send (path
+// variables, query string, header parameters, JSON body, Accept) is built from the operation on each call and sent
+// through the same RestTemplate, so request headers, cache validators, streaming and debug logging all apply.
+final class InterpretedPlan implements OperationPlan {
+
+    private final String operationId;
+    private final String httpMethod;
+    private final HttpMethod method;
+    private final String uriTemplate;
+    private final ParameterBinding[] parameters;
+    private final boolean bodyRequired;
+    private final MediaType contentType;
+    private final List<MediaType> accept;
+    private final Class<?> responseType;
+    private final RestTemplate restTemplate;
+    private final DefaultUriBuilderFactory uriBuilderFactory;
+
+    private InterpretedPlan(String operationId, PathItem.HttpMethod httpMethod, String uriTemplate,
+            ParameterBinding[] parameters, boolean bodyRequired, MediaType contentType, List<MediaType> accept,
+            Class<?> responseType, RestTemplate restTemplate) {
+        this.operationId = operationId;
+        this.httpMethod = httpMethod.name().toLowerCase(Locale.ROOT);
+        this.method = HttpMethod.valueOf(httpMethod.name());
+        this.uriTemplate = uriTemplate;
+        this.parameters = parameters;
+        this.bodyRequired = bodyRequired;
+        this.contentType = contentType;
+        this.accept = accept;
+        this.responseType = responseType;
+        this.restTemplate = restTemplate;
+        // Same values-only encoding as the generated ApiClient
+        this.uriBuilderFactory = new DefaultUriBuilderFactory();
+        this.uriBuilderFactory.setEncodingMode(DefaultUriBuilderFactory.EncodingMode.VALUES_ONLY);
+    }
+
+    static InterpretedPlan create(String operationId, String serverUrl, String path, PathItem pathItem,
+            PathItem.HttpMethod httpMethod, Operation operation, RestTemplate restTemplate) {
+        // Operation parameters override path-level ones with the same name and location
+        Map<String, Parameter> specParameters = new HashMap<>();
+        List<Parameter> ordered = new ArrayList<>();
+        for (List<Parameter> level : List.of(nullToEmpty(pathItem.getParameters()), nullToEmpty(operation.getParameters()))) {
+            for (Parameter parameter : level) {
+                if (parameter.getName() != null && parameter.getIn() != null
+                        && specParameters.put(parameter.getIn() + ":" + parameter.getName(), parameter) == null) {
+                    ordered.add(parameter);
+                }
+            }
+        }
+        List<ParameterBinding> bindings = new ArrayList<>();
+        for (Parameter parameter : ordered) {
+            Parameter effective = specParameters.get(parameter.getIn() + ":" + parameter.getName());
+            Location location = Location.of(effective.getIn());
+            if (location != null) {
+                // Legacy alias: callers may send the "id" query parameter as "user"
+                String alias = "id".equals(effective.getName()) ? "user" : null;
+                boolean required = location == Location.PATH || Boolean.TRUE.equals(effective.getRequired());
+                bindings.add(new ParameterBinding(effective.getName(), alias, location, required));
+            }
+        }
+
+        boolean bodyRequired = operation.getRequestBody() != null && Boolean.TRUE.equals(operation.getRequestBody().getRequired());
+        MediaType contentType = operation.getRequestBody() != null ? firstMediaType(operation.getRequestBody().getContent()) : null;
+        Content responseContent = successContent(operation);
+        List<MediaType> accept = new ArrayList<>();
+        if (responseContent != null) {
+            responseContent.keySet().forEach(type -> accept.add(MediaType.parseMediaType(type)));
+        }
+        // Anything the JSON converter cannot read is returned as text, like a generated String response
+        Class<?> responseType = accept.isEmpty() || accept.stream().anyMatch(InterpretedPlan::isJson) ? Object.class : String.class;
+
+        return new InterpretedPlan(operationId, httpMethod, trimTrailingSlash(serverUrl) + path,
+                bindings.toArray(ParameterBinding[]::new), bodyRequired, contentType, List.copyOf(accept),
+                responseType, restTemplate);
+    }
+
+    @Override
+    public String getOperationId() {
+        return operationId;
+    }
+
+    @Override
+    public String getMethodName() {
+        return method.name() + " " + uriTemplate;
+    }
+
+    @Override
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    // Parameter values in spec order, then the body
+    @Override
+    public Object[] bind(Map<String, String> queryParams, Object body) {
+        Object[] args = new Object[parameters.length + 1];
+        if (queryParams != null) {
+            for (int i = 0; i < parameters.length; i++) {
+                args[i] = parameters[i].resolve(queryParams);
+            }
+        }
+        args[parameters.length] = body instanceof String s && s.isEmpty() ? null : body;
+        return args;
+    }
+
+    @Override
+    public Object invoke(Object[] args) throws Exception {
+        UriBuilder uri = uriBuilderFactory.uriString(uriTemplate);
+        Map<String, Object> variables = new HashMap<>();
+        HttpHeaders headers = new HttpHeaders();
+        for (int i = 0; i < parameters.length; i++) {
+            ParameterBinding parameter = parameters[i];
+            Object value = args[i];
+            if (value == null) {
+                if (parameter.required()) {
+                    throw missing(parameter.name());
+                }
+                continue;
+            }
+            switch (parameter.location()) {
+                case PATH -> variables.put(parameter.name(), value);
+                case QUERY -> {
+                    // Expanded as a variable too, so the value is encoded exactly like a path value
+                    String variable = "_q" + i;
+                    uri.queryParam(parameter.name(), "{" + variable + "}");
+                    variables.put(variable, value);
+                }
+                case HEADER -> headers.add(parameter.name(), value.toString());
+                case COOKIE -> headers.add(HttpHeaders.COOKIE, parameter.name() + "=" + value);
+            }
+        }
+        Object body = args[parameters.length];
+        if (body == null && bodyRequired) {
+            throw missing("body");
+        }
+        // The generated ApiClient sends a JSON Content-Type even without a body
+        headers.setContentType(contentType != null ? contentType : MediaType.APPLICATION_JSON);
+        if (!accept.isEmpty()) {
+            headers.setAccept(accept);
+        }
+        RequestEntity<Object> request = new RequestEntity<>(body, headers, method, uri.build(variables));
+        return restTemplate.exchange(request, responseType).getBody();
+    }
+
+    private HttpClientErrorException missing(String name) {
+        return new HttpClientErrorException(HttpStatus.BAD_REQUEST,
+                "Missing the required parameter '" + name + "' when calling " + operationId);
+    }
+
+    private static Content successContent(Operation operation) {
+        if (operation.getResponses() == null) {
+            return null;
+        }
+        for (Map.Entry<String, ApiResponse> response : operation.getResponses().entrySet()) {
+            if (response.getKey().startsWith("2") && response.getValue().getContent() != null
+                    && !response.getValue().getContent().isEmpty()) {
+                return response.getValue().getContent();
+            }
+        }
+        return null;
+    }
+
+    private static MediaType firstMediaType(Content content) {
+        return content == null || content.isEmpty() ? MediaType.APPLICATION_JSON : MediaType.parseMediaType(content.keySet().iterator().next());
+    }
+
+    private static boolean isJson(MediaType type) {
+        return type.isWildcardType() || type.getSubtype().equals("json") || type.getSubtype().endsWith("+json");
+    }
+
+    private static String trimTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private enum Location {
+        PATH, QUERY, HEADER, COOKIE;
+
+        static Location of(String in) {
+            return switch (in) {
+                case "path" -> PATH;
+                case "query" -> QUERY;
+                case "header" -> HEADER;
+                case "cookie" -> COOKIE;
+                default -> null;
+            };
+        }
+    }
+
+    private record ParameterBinding(String name, String alias, Location location, boolean required) {
+        Object resolve(Map<String, String> queryParams) {
+            return alias != null && queryParams.containsKey(alias) ? queryParams.get(alias) : queryParams.get(name);
+        }
+    }
+}
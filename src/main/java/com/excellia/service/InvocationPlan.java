@@ -0,0 +1,270 @@
+package com.excellia.service;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+
+// Everything needed to call one generated operation, resolved once when the client is loaded:
+// the generated API method as a bound MethodHandle and how each of its arguments is taken from a request.
+final class InvocationPlan implements OperationPlan {
+
+    private static final MethodType SPREAD_TYPE = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType CARRIER_TYPE = MethodType.methodType(Object.class);
+
+    private final String operationId;
+    private final String methodName;
+    private final String httpMethod;
+    private final MethodHandle handle;
+    private final ArgumentBinding[] bindings;
+    // The body argument that is sent as the caller wrote it, without model binding, or -1
+    private final int carriedBody;
+
+    private InvocationPlan(String operationId, String methodName, String httpMethod, MethodHandle handle,
+            ArgumentBinding[] bindings) {
+        this.operationId = operationId;
+        this.methodName = methodName;
+        this.httpMethod = httpMethod;
+        this.handle = handle;
+        this.bindings = bindings;
+        int carried = -1;
+        for (int i = 0; i < bindings.length; i++) {
+            if (bindings[i].carrier != null) {
+                carried = i;
+            }
+        }
+        this.carriedBody = carried;
+    }
+
+    static InvocationPlan create(String operationId, PathItem.HttpMethod httpMethod, Operation operation,
+            MethodIndex methods, JsonBodyConverter bodies) throws IllegalAccessException {
+        ApiMethod apiMethod = methods.find(operationId);
+        if (apiMethod == null) {
+            throw new UnsupportedOperationException("No method found for operationId: " + operationId);
+        }
+        Method method = apiMethod.method();
+        MethodHandle handle = MethodHandles.publicLookup().unreflect(method)
+            .bindTo(apiMethod.api())
+            .asSpreader(Object[].class, method.getParameterCount())
+            .asType(SPREAD_TYPE);
+        return new InvocationPlan(operationId, method.getName(), httpMethod.name().toLowerCase(Locale.ROOT), handle,
+                bindArguments(method, operation, bodies));
+    }
+
+    @Override
+    public String getOperationId() {
+        return operationId;
+    }
+
+    @Override
+    public String getMethodName() {
+        return methodName;
+    }
+
+    @Override
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    @Override
+    public Object[] bind(Map<String, String> queryParams, Object body) {
+        Object[] args = new Object[bindings.length];
+        for (int i = 0; i < bindings.length; i++) {
+            args[i] = bindings[i].resolve(queryParams, body);
+        }
+        return args;
+    }
+
+    // A body sent without model binding goes to the generated method as an empty model instance, which
+    // JsonBodyConverter replaces with the body itself when it writes the request
+    @Override
+    public Object invoke(Object[] args) throws Exception {
+        try {
+            Object body = carriedBody >= 0 ? args[carriedBody] : null;
+            if (body instanceof Map<?, ?> || body instanceof List<?>) {
+                Object[] carried = args.clone();
+                carried[carriedBody] = (Object) bindings[carriedBody].carrier.invokeExact();
+                try (RequestHeadersInterceptor.Scope scope = JsonBodyConverter.open(carried[carriedBody], body)) {
+                    return (Object) handle.invokeExact(carried);
+                }
+            }
+            return (Object) handle.invokeExact(args);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+
+    // Indexes the public methods of every generated API instance once, so each operation is matched with a map
+    // lookup instead of a scan over getMethods()
+    static MethodIndex indexMethods(List<Object> apis) {
+        Map<String, ApiMethod> byName = new HashMap<>();
+        Map<String, ApiMethod> byNormalizedName = new HashMap<>();
+        for (Object api : apis) {
+            for (Method method : api.getClass().getMethods()) {
+                if (method.getDeclaringClass() == Object.class) {
+                    continue;
+                }
+                ApiMethod apiMethod = new ApiMethod(api, method);
+                byName.putIfAbsent(method.getName().toLowerCase(Locale.ROOT), apiMethod);
+                byNormalizedName.putIfAbsent(normalize(method.getName()), apiMethod);
+            }
+        }
+        return new MethodIndex(byName, byNormalizedName);
+    }
+
+    record ApiMethod(Object api, Method method) {
+    }
+
+    // The generator camel-cases operationIds and drops characters that are not valid in Java names
+    // ("get_user", "get-user" -> getUser; "delete" -> _delete), so an exact match is tried first, then one on
+    // letters and digits only
+    record MethodIndex(Map<String, ApiMethod> byName, Map<String, ApiMethod> byNormalizedName) {
+        ApiMethod find(String operationId) {
+            ApiMethod method = byName.get(operationId.toLowerCase(Locale.ROOT));
+            return method != null ? method : byNormalizedName.get(normalize(operationId));
+        }
+    }
+
+    // Generated parameter names are sanitized spec names, so spec parameters are matched on letters and digits only;
+    // the one parameter that matches none of them is the request body.
+    private static ArgumentBinding[] bindArguments(Method method, Operation operation, JsonBodyConverter bodies) {
+        Map<String, String> specNames = new HashMap<>();
+        List<io.swagger.v3.oas.models.parameters.Parameter> specParameters = operation.getParameters();
+        if (specParameters != null) {
+            for (io.swagger.v3.oas.models.parameters.Parameter specParameter : specParameters) {
+                specNames.put(normalize(specParameter.getName()), specParameter.getName());
+            }
+        }
+
+        Parameter[] parameters = method.getParameters();
+        ArgumentBinding[] bindings = new ArgumentBinding[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            String paramName = parameters[i].getName();
+            String specName = specNames.get(normalize(paramName));
+            if (specName == null && ("body".equals(paramName) || operation.getRequestBody() != null)) {
+                Class<?> type = parameters[i].getType();
+                MethodHandle carrier = bodies.isBindModels() ? null : carrierFor(type);
+                bindings[i] = ArgumentBinding.body(bodyConverterFor(type, bodies, carrier != null), carrier);
+            } else {
+                String name = specName != null ? specName : paramName;
+                // Legacy alias: callers may send the "id" query parameter as "user"
+                String alias = "id".equals(name) ? "user" : null;
+                bindings[i] = ArgumentBinding.query(name, alias, converterFor(parameters[i].getType()));
+            }
+        }
+        return bindings;
+    }
+
+    private static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    // Bodies arrive as maps and lists. Generated model parameters get the body bound to the model, unless model
+    // binding is off: then maps and lists are passed on as they are and sent as the caller wrote them (see invoke).
+    private static Function<Object, Object> bodyConverterFor(Class<?> type, JsonBodyConverter bodies, boolean carried) {
+        if (type == Object.class) {
+            return value -> value;
+        }
+        ObjectReader reader = bodies.readerFor(type);
+        bodies.writerFor(type);
+        if (carried) {
+            return value -> value instanceof Map<?, ?> || value instanceof List<?> || type.isInstance(value) ? value
+                    : bodies.bind(value, reader);
+        }
+        return value -> type.isInstance(value) ? value : bodies.bind(value, reader);
+    }
+
+    // A public no-arg constructor of a generated model class, or null when the parameter is not one
+    private static MethodHandle carrierFor(Class<?> type) {
+        if (type == Object.class || type.isInterface() || type.isArray() || type.isPrimitive() || type.isEnum()
+                || Modifier.isAbstract(type.getModifiers()) || Map.class.isAssignableFrom(type)
+                || Collection.class.isAssignableFrom(type) || type.getName().startsWith("java.")) {
+            return null;
+        }
+        try {
+            return MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class)).asType(CARRIER_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static Function<String, Object> converterFor(Class<?> type) {
+        if (type == Integer.class || type == int.class) {
+            return Integer::valueOf;
+        } else if (type == Long.class || type == long.class) {
+            return Long::valueOf;
+        } else if (type == Double.class || type == double.class) {
+            return Double::valueOf;
+        } else if (type == Float.class || type == float.class) {
+            return Float::valueOf;
+        } else if (type == Boolean.class || type == boolean.class) {
+            return Boolean::valueOf;
+        } else if (type == BigDecimal.class) {
+            return BigDecimal::new;
+        }
+        return value -> value;
+    }
+
+    private static final class ArgumentBinding {
+        private final String name;
+        private final String alias;
+        private final Function<String, Object> converter;
+        private final Function<Object, Object> bodyConverter;
+        private final MethodHandle carrier;
+
+        private ArgumentBinding(String name, String alias, Function<String, Object> converter,
+                Function<Object, Object> bodyConverter, MethodHandle carrier) {
+            this.name = name;
+            this.alias = alias;
+            this.converter = converter;
+            this.bodyConverter = bodyConverter;
+            this.carrier = carrier;
+        }
+
+        static ArgumentBinding body(Function<Object, Object> bodyConverter, MethodHandle carrier) {
+            return new ArgumentBinding(null, null, null, bodyConverter, carrier);
+        }
+
+        static ArgumentBinding query(String name, String alias, Function<String, Object> converter) {
+            return new ArgumentBinding(name, alias, converter, null, null);
+        }
+
+        Object resolve(Map<String, String> queryParams, Object requestBody) {
+            if (bodyConverter != null) {
+                if (requestBody == null || requestBody instanceof String s && s.isEmpty()) {
+                    return null;
+                }
+                return bodyConverter.apply(requestBody);
+            }
+            if (queryParams == null) {
+                return null;
+            }
+            String value = alias != null && queryParams.containsKey(alias) ? queryParams.get(alias) : queryParams.get(name);
+            return value != null ? converter.apply(value) : null;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.excellia.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.core.util.RecyclerPool;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Request body settings, and the JSON buffers shared by every client's mapper. Jackson recycles its read and write
+// buffers per thread by default, which request threads that come and go (virtual ones in particular) never reuse;
+// one bounded pool lets them all share a fixed set instead.
+@Service
+public class JsonBodies {
+
+    private final boolean bindModels;
+    private final RecyclerPool<BufferRecycler> buffers;
+    // For reading and writing JSON token by token, e.g. responses being transformed
+    private final JsonFactory jsonFactory;
+
+    public JsonBodies(
+            @Value("${excellia.body.bind-models:true}") boolean bindModels,
+            @Value("${excellia.body.pooled-buffers:64}") int pooledBuffers) {
+        this.bindModels = bindModels;
+        this.buffers = pooledBuffers > 0 ? JsonRecyclerPools.newBoundedPool(pooledBuffers) : JsonRecyclerPools.threadLocalPool();
+        this.jsonFactory = new JsonFactory().setRecyclerPool(buffers);
+    }
+
+    // Whether bodies are bound to the generated model classes before they are sent
+    boolean isBindModels() {
+        return bindModels;
+    }
+
+    // Buffers currently idle in the pool
+    int pooledBuffers() {
+        return buffers.pooledCount();
+    }
+
+    JsonFactory jsonFactory() {
+        return jsonFactory;
+    }
+
+    // Adds a body converter in front of the template's own converters. It shares the mapper the template's Jackson
+    // converter reads responses with, so both directions use one configuration and the pooled buffers.
+    JsonBodyConverter converterFor(RestTemplate restTemplate) {
+        ObjectMapper objectMapper = null;
+        for (HttpMessageConverter<?> converter : restTemplate.getMessageConverters()) {
+            if (converter instanceof MappingJackson2HttpMessageConverter jackson) {
+                objectMapper = jackson.getObjectMapper();
+                break;
+            }
+        }
+        if (objectMapper == null) {
+            objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        }
+        objectMapper.getFactory().setRecyclerPool(buffers);
+        JsonBodyConverter bodyConverter = new JsonBodyConverter(objectMapper, bindModels);
+        restTemplate.getMessageConverters().add(0, bodyConverter);
+        return bodyConverter;
+    }
+}
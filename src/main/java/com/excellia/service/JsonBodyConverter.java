@@ -0,0 +1,110 @@
+package com.excellia.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+// First message converter of each client's RestTemplate; writes JSON request bodies, reading is left to the
+// template's own converters. Writers and readers are built once per body type when the operation plans are
+// created, and bodies are serialized straight into the request with them.
+final class JsonBodyConverter implements HttpMessageConverter<Object> {
+
+    private static final List<MediaType> MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+    // The body to send in place of the empty model instance a generated method was called with
+    private static final ThreadLocal<PreparedBody> CURRENT = new ThreadLocal<>();
+
+    private final ObjectMapper objectMapper;
+    private final boolean bindModels;
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    JsonBodyConverter(ObjectMapper objectMapper, boolean bindModels) {
+        this.objectMapper = objectMapper;
+        this.bindModels = bindModels;
+    }
+
+    static RequestHeadersInterceptor.Scope open(Object carrier, Object body) {
+        PreparedBody previous = CURRENT.get();
+        CURRENT.set(new PreparedBody(carrier, body));
+        return previous == null ? CURRENT::remove : () -> CURRENT.set(previous);
+    }
+
+    boolean isBindModels() {
+        return bindModels;
+    }
+
+    ObjectWriter writerFor(Class<?> type) {
+        return writers.computeIfAbsent(type, objectMapper::writerFor);
+    }
+
+    ObjectReader readerFor(Class<?> type) {
+        return objectMapper.readerFor(type);
+    }
+
+    // What ObjectMapper.convertValue does, with the target type's reader built in advance
+    Object bind(Object body, ObjectReader reader) {
+        try (TokenBuffer tokens = new TokenBuffer(objectMapper, false)) {
+            writerFor(body.getClass()).writeValue(tokens, body);
+            return reader.readValue(tokens.asParserOnFirstToken());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Request body does not match " + reader.getValueType() + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    // Text, binary and form bodies keep their own converters
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        if (mediaType != null && !mediaType.isWildcardType() && MEDIA_TYPES.stream().noneMatch(mediaType::isCompatibleWith)) {
+            return false;
+        }
+        return !CharSequence.class.isAssignableFrom(clazz) && clazz != byte[].class
+                && !Resource.class.isAssignableFrom(clazz) && !MultiValueMap.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes() {
+        return MEDIA_TYPES;
+    }
+
+    @Override
+    public Object read(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("Request bodies only");
+    }
+
+    @Override
+    public void write(Object body, MediaType contentType, HttpOutputMessage outputMessage) throws IOException {
+        HttpHeaders headers = outputMessage.getHeaders();
+        if (headers.getContentType() == null) {
+            headers.setContentType(contentType == null || contentType.isWildcardType() || contentType.isWildcardSubtype()
+                    ? MediaType.APPLICATION_JSON : contentType);
+        }
+        PreparedBody prepared = CURRENT.get();
+        if (prepared != null && prepared.carrier() == body) {
+            body = prepared.body();
+        }
+        // Left open: the request decides when its body is complete
+        writerFor(body.getClass()).writeValue(StreamUtils.nonClosing(outputMessage.getBody()), body);
+    }
+
+    private record PreparedBody(Object carrier, Object body) {
+    }
+}
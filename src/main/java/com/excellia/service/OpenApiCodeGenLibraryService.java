@@ -1,87 +1,235 @@
 package com.excellia.service;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.CodegenConfig;
+import org.openapitools.codegen.CodegenConfigLoader;
+import org.openapitools.codegen.CodegenConstants;
 import org.openapitools.codegen.DefaultGenerator;
-import org.openapitools.codegen.config.CodegenConfigurator;
+import org.openapitools.codegen.TemplatingEngineLoader;
+import org.openapitools.codegen.config.GlobalSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import com.excellia.dto.ApiConfig;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
 
 @Service
 public class OpenApiCodeGenLibraryService {
 
-    private static final String YAML_DIR = "src/main/resources/generated/";
-    private static final String YAML_FILE = "openapi.yaml";
-    private static final String OUTPUT_DIR = "target/generated-sources/openapi";
+    private static final Logger log = LoggerFactory.getLogger(OpenApiCodeGenLibraryService.class);
     private static final String BASE_PACKAGE = "com.excellia";
+    private static final String IGNORE_FILE = ".openapi-generator-ignore";
 
-    public void generateCode() {
-        generateCodeInternal(Paths.get(YAML_DIR, YAML_FILE).toString());
+    private static final String LEAN_PROFILE = "lean";
+    private static final String FULL_PROFILE = "full";
+    // Supporting files the lean profile keeps: the invoker package and its auth classes
+    private static final List<String> CLIENT_SUPPORTING_FILES = List.of(
+            "ApiClient.java", "BaseApi.java", "JavaTimeFormatter.java", "RFC3339DateFormat.java",
+            "ServerConfiguration.java", "ServerVariable.java", "Authentication.java", "ApiKeyAuth.java",
+            "HttpBasicAuth.java", "HttpBearerAuth.java", "OAuth.java", "OAuthFlow.java");
+
+    private final GeneratedClientCache clientCache;
+    private final boolean lean;
+    private final List<String> supportingFiles;
+    private final Map<String, ReentrantLock> workspaceLocks = new ConcurrentHashMap<>();
+
+    public OpenApiCodeGenLibraryService(
+            GeneratedClientCache clientCache,
+            @Value("${excellia.codegen.profile:lean}") String profile,
+            @Value("${excellia.codegen.supporting-files:}") List<String> supportingFiles) {
+        if (!LEAN_PROFILE.equals(profile) && !FULL_PROFILE.equals(profile)) {
+            throw new IllegalArgumentException("Unknown codegen profile '" + profile + "', expected lean or full");
+        }
+        this.clientCache = clientCache;
+        this.lean = LEAN_PROFILE.equals(profile);
+        this.supportingFiles = supportingFiles.isEmpty() ? CLIENT_SUPPORTING_FILES : List.copyOf(supportingFiles);
+    }
+
+    public void generateCode(String specHash) {
+        generateCode(specHash, null, null);
+    }
+
+    // Generates from the spec already stored in the cache, e.g. an imported document
+    public void generateCode(String specHash, String lineage) {
+        generateCode(specHash, null, lineage);
     }
 
-    public void generateCodeFromConfig(ApiConfig apiConfig) {
-        String yamlPath = Paths.get(YAML_DIR, YAML_FILE).toString();
-        generateCodeInternal(yamlPath);
+    // The model from the request is generated from directly, never written and parsed back
+    public void generateCode(SpecDocument spec, String lineage) {
+        generateCode(spec.specHash(), spec.openApi(), lineage);
     }
 
-    private void generateCodeInternal(String yamlAbsolutePath) {
+    // Specs in the same lineage (e.g. the same upstream URL) are generated into one shared workspace, so a new
+    // version of a spec only rewrites the files whose content changed; the artifact is then linked from it.
+    private void generateCode(String specHash, OpenAPI openApi, String lineage) {
+        Lock lock = clientCache.lockFor(specHash);
+        lock.lock();
         try {
-            cleanOutputDirectory();
-
-            CodegenConfigurator configurator = new CodegenConfigurator()
-                .setGeneratorName("java")
-                .setLibrary("resttemplate")
-                .setInputSpec(new File(yamlAbsolutePath).getAbsolutePath())
-                .setOutputDir(OUTPUT_DIR)
-                .setApiPackage(BASE_PACKAGE + ".api")
-                .setModelPackage(BASE_PACKAGE + ".model")
-                .setInvokerPackage(BASE_PACKAGE + ".core")
-                .setValidateSpec(true);
-
-            Map<String, Object> props = new HashMap<>();
+            if (clientCache.contains(specHash)) {
+                System.out.println("✅ Reusing cached client code for spec " + specHash);
+                return;
+            }
+            OpenAPI model = openApi != null ? openApi : readSpec(clientCache.specFile(specHash));
+            if (lineage == null) {
+                generateCodeInternal(model, clientCache.specFile(specHash), clientCache.clientDir(specHash));
+            } else {
+                generateIncrementally(specHash, model, GeneratedClientCache.hash(lineage));
+            }
+            clientCache.commit(specHash);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void generateIncrementally(String specHash, OpenAPI openApi, String lineageKey) {
+        ReentrantLock workspaceLock = workspaceLocks.computeIfAbsent(lineageKey, key -> new ReentrantLock());
+        workspaceLock.lock();
+        try {
+            Path workspace = clientCache.workspaceDir(lineageKey);
+            Map<Path, FileTime> before = snapshot(workspace);
+            Set<Path> generated = new HashSet<>();
+            for (File file : generateCodeInternal(openApi, clientCache.specFile(specHash), workspace)) {
+                generated.add(file.toPath().toAbsolutePath().normalize());
+            }
+
+            int changed = 0;
+            int removed = 0;
+            for (Path file : snapshot(workspace).keySet()) {
+                if (!generated.contains(file) && !file.getFileName().toString().equals(IGNORE_FILE)) {
+                    Files.delete(file);
+                    removed++;
+                } else if (!Objects.equals(before.get(file), Files.getLastModifiedTime(file))) {
+                    changed++;
+                }
+            }
+            log.info("Regenerated spec {} in workspace {}: {} of {} files rewritten, {} stale files removed",
+                    specHash, lineageKey, changed, generated.size(), removed);
+
+            linkTree(workspace, clientCache.clientDir(specHash));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to update generation workspace " + lineageKey, e);
+        } finally {
+            workspaceLock.unlock();
+        }
+    }
+
+    // Imported documents may carry parser warnings; they were accepted on import, so they are only reported here
+    private static OpenAPI readSpec(Path specFile) {
+        SwaggerParseResult result = OpenApiDocuments.parse(specFile);
+        if (result.getMessages() != null && !result.getMessages().isEmpty()) {
+            log.warn("Spec {} parsed with {} warnings, first: {}", specFile, result.getMessages().size(),
+                    result.getMessages().get(0));
+        }
+        return result.getOpenAPI();
+    }
+
+    // The same settings CodegenConfigurator would apply, set on the codegen config directly so the generator can
+    // take an OpenAPI model instead of a spec location
+    private List<File> generateCodeInternal(OpenAPI openApi, Path yamlPath, Path outputDir) {
+        try {
+            CodegenConfig codegen = CodegenConfigLoader.forName("java");
+            codegen.setLibrary("resttemplate");
+            codegen.setInputSpec(yamlPath.toAbsolutePath().toString());
+            codegen.setOutputDir(outputDir.toString());
+            // Existing files are only replaced when their content changes
+            codegen.setEnableMinimalUpdate(true);
+            codegen.setTemplatingEngine(TemplatingEngineLoader.byIdentifier(codegen.defaultTemplatingEngine()));
+
+            Map<String, Object> props = codegen.additionalProperties();
+            props.put(CodegenConstants.API_PACKAGE, BASE_PACKAGE + ".api");
+            props.put(CodegenConstants.MODEL_PACKAGE, BASE_PACKAGE + ".model");
+            props.put(CodegenConstants.INVOKER_PACKAGE, BASE_PACKAGE + ".core");
             props.put("useSpringBoot", "true");
             props.put("dateLibrary", "java8");
             props.put("serializationLibrary", "jackson");
             props.put("openApiNullable", "false");
             props.put("useServerUrl", "true"); // Ensure generated client uses server URL from YAML
-            configurator.setAdditionalProperties(props);
+            // A timestamp in every @Generated would make each regeneration rewrite, and recompile, every file
+            props.put("hideGenerationTimestamp", "true");
+            if (lean) {
+                // Only the client sources are compiled; docs, tests, build scripts and CI files are never read
+                GlobalSettings.setProperty(CodegenConstants.APIS, "");
+                GlobalSettings.setProperty(CodegenConstants.MODELS, "");
+                GlobalSettings.setProperty(CodegenConstants.SUPPORTING_FILES, String.join(",", supportingFiles));
+                GlobalSettings.setProperty(CodegenConstants.API_DOCS, "false");
+                GlobalSettings.setProperty(CodegenConstants.MODEL_DOCS, "false");
+                GlobalSettings.setProperty(CodegenConstants.API_TESTS, "false");
+                GlobalSettings.setProperty(CodegenConstants.MODEL_TESTS, "false");
+            } else {
+                // Placeholders the configurator fills into the full profile's git_push.sh
+                props.put(CodegenConstants.GIT_HOST, "github.com");
+                props.put(CodegenConstants.GIT_USER_ID, "GIT_USER_ID");
+                props.put(CodegenConstants.GIT_REPO_ID, "GIT_REPO_ID");
+                props.put(CodegenConstants.RELEASE_NOTE, "Minor update");
+            }
 
-            new DefaultGenerator()
-                .opts(configurator.toClientOptInput())
+            DefaultGenerator generator = new DefaultGenerator();
+            generator.setGenerateMetadata(!lean);
+            List<File> files = generator
+                .opts(new ClientOptInput().openAPI(openApi).config(codegen))
                 .generate();
 
             System.out.println("✅ Successfully generated client code into:");
             System.out.println("   - " + BASE_PACKAGE + ".api");
             System.out.println("   - " + BASE_PACKAGE + ".model");
             System.out.println("   - " + BASE_PACKAGE + ".core");
+            return files;
 
         } catch (Exception e) {
             throw new RuntimeException("❌ Failed to generate API client: " + e.getMessage(), e);
+        } finally {
+            // Global properties are per thread and would otherwise leak into the next generation on it
+            GlobalSettings.reset();
         }
     }
 
-    private void cleanOutputDirectory() {
-        Path outputPath = Paths.get(OUTPUT_DIR);
-        if (Files.exists(outputPath)) {
-            deleteDirectory(outputPath.toFile());
+    private static Map<Path, FileTime> snapshot(Path dir) throws IOException {
+        Map<Path, FileTime> files = new HashMap<>();
+        if (!Files.isDirectory(dir)) {
+            return files;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                files.put(file.toAbsolutePath().normalize(), Files.getLastModifiedTime(file));
+            }
         }
+        return files;
     }
 
-    private void deleteDirectory(File directory) {
-        if (directory.exists()) {
-            File[] files = directory.listFiles();
-            if (files != null) {
-                for (File file : files) {
-                    deleteDirectory(file);
+    // The generator replaces changed files by moving a new file over them, so hard links taken here keep
+    // pointing at this version's content when the workspace moves on
+    private static void linkTree(Path source, Path target) throws IOException {
+        GeneratedClientCache.deleteDirectory(target);
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path file : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                Path link = target.resolve(source.relativize(file).toString());
+                Files.createDirectories(link.getParent());
+                try {
+                    Files.createLink(link, file);
+                } catch (UnsupportedOperationException | IOException e) {
+                    Files.copy(file, link, StandardCopyOption.COPY_ATTRIBUTES);
                 }
             }
-            directory.delete();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package com.excellia.service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.yaml.snakeyaml.LoaderOptions;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.core.util.Yaml31;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.SpecVersion;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import io.swagger.v3.parser.util.OpenAPIDeserializer;
+
+// Reads OpenAPI 3.x documents from a stream straight into a Jackson tree and then the swagger model. The swagger
+// parser's own entry points first read the whole document into a String and cap YAML input at 3 MB.
+// Size limits are the caller's job; references are left as they are and never fetched.
+final class OpenApiDocuments {
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final ObjectMapper YAML_MAPPER = new ObjectMapper(YAMLFactory.builder()
+        .loaderOptions(unlimitedLoaderOptions())
+        .build());
+
+    private OpenApiDocuments() {
+    }
+
+    static SwaggerParseResult parse(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            return parse(in, file.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read spec " + file, e);
+        }
+    }
+
+    // Throws IllegalArgumentException when the stream is not a well-formed OpenAPI 3.x document
+    static SwaggerParseResult parse(InputStream in, String location) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        JsonNode root;
+        try {
+            root = (startsWithBrace(buffered) ? JSON_MAPPER : YAML_MAPPER).readTree(buffered);
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Malformed OpenAPI document: " + e.getOriginalMessage(), e);
+        }
+        if (root == null || !root.isObject() || !root.path("openapi").asText().startsWith("3.")) {
+            throw new IllegalArgumentException("Only OpenAPI 3.x documents are supported");
+        }
+        SwaggerParseResult result = new OpenAPIDeserializer().deserialize(root, location, new ParseOptions());
+        if (result.getOpenAPI() == null) {
+            throw new IllegalArgumentException("Invalid OpenAPI document: " + result.getMessages());
+        }
+        return result;
+    }
+
+    static void write(OpenAPI openApi, OutputStream out) throws IOException {
+        ObjectMapper mapper = openApi.getSpecVersion() == SpecVersion.V31 ? Yaml31.mapper() : Yaml.mapper();
+        mapper.writeValue(out, openApi);
+    }
+
+    private static boolean startsWithBrace(BufferedInputStream in) throws IOException {
+        in.mark(1024);
+        try {
+            for (int i = 0; i < 1024; i++) {
+                int c = in.read();
+                if (c == -1 || !Character.isWhitespace(c)) {
+                    return c == '{';
+                }
+            }
+            return false;
+        } finally {
+            in.reset();
+        }
+    }
+
+    private static LoaderOptions unlimitedLoaderOptions() {
+        LoaderOptions options = new LoaderOptions();
+        options.setCodePointLimit(Integer.MAX_VALUE);
+        return options;
+    }
+}
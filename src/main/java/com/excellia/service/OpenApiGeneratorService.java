@@ -1,65 +1,126 @@
 package com.excellia.service;
 
+import java.io.BufferedOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import com.excellia.dto.ApiConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.oas.models.OpenAPI;
 
 @Service
 public class OpenApiGeneratorService {
 
     private static final Logger log = LoggerFactory.getLogger(OpenApiGeneratorService.class);
-    private static final String YAML_OUTPUT_PATH = "src/main/resources/generated/openapi.yaml";
-    private final OpenApiYamlBuilder yamlBuilder;
+    private static final String STAGING_DIR = ".staging";
+    private final OpenApiSpecBuilder specBuilder;
+    private final GeneratedClientCache clientCache;
 
     // Constructor injection
-    public OpenApiGeneratorService(OpenApiYamlBuilder yamlBuilder) {
-        this.yamlBuilder = yamlBuilder;
+    public OpenApiGeneratorService(OpenApiSpecBuilder specBuilder, GeneratedClientCache clientCache) {
+        this.specBuilder = specBuilder;
+        this.clientCache = clientCache;
+    }
+
+    // Returns the content hash identifying the spec (and its generated client) in the client cache
+    public String generateFromConfig(ApiConfig config) throws IOException {
+        SpecDocument spec = buildSpec(config);
+        writeSpec(spec);
+        return spec.specHash();
     }
 
-    public void generateFromConfig(ApiConfig config) throws IOException {
+    public SpecDocument buildSpec(ApiConfig config) {
         // Validate inputs
         if (config == null) {
             log.error("ApiConfig is null");
             throw new IllegalArgumentException("ApiConfig cannot be null");
         }
-        if (yamlBuilder == null) {
-            log.error("YAML Builder is not initialized");
-            throw new IllegalStateException("YAML Builder is not initialized");
+        if (specBuilder == null) {
+            log.error("Spec Builder is not initialized");
+            throw new IllegalStateException("Spec Builder is not initialized");
         }
 
-        // Generate YAML
-        String yaml;
+        // Build the model; its YAML is only written out, never parsed back for generation
+        OpenAPI openApi;
         try {
-            yaml = yamlBuilder.buildYaml(config);
-            log.info("Generated YAML:\n{}", yaml);
+            openApi = specBuilder.build(config);
         } catch (IllegalArgumentException e) {
-            log.error("Failed to generate YAML: {}", e.getMessage());
+            log.error("Failed to generate spec: {}", e.getMessage());
             throw e;
         }
+        String yaml;
+        try {
+            yaml = Yaml.mapper().writeValueAsString(openApi);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize spec: " + e.getOriginalMessage(), e);
+        }
+        log.info("Generated YAML:\n{}", yaml);
+        return new SpecDocument(GeneratedClientCache.hash(yaml), openApi, yaml);
+    }
 
-        // Save YAML to file
-        Path yamlPath = Paths.get(YAML_OUTPUT_PATH);
+    public void writeSpec(SpecDocument spec) throws IOException {
+        String specHash = spec.specHash();
+        if (clientCache.contains(specHash)) {
+            log.info("Spec {} already generated, skipping YAML write", specHash);
+            return;
+        }
+
+        // Save YAML to the spec's artifact directory; written to a temp file and moved so concurrent
+        // requests for the same spec never read a partial file
+        Path yamlPath = clientCache.specFile(specHash);
         try {
             Files.createDirectories(yamlPath.getParent());
-            try (FileWriter writer = new FileWriter(yamlPath.toFile())) {
-                writer.write(yaml);
-                log.info("YAML saved at: {}", yamlPath);
+            Path tempPath = Files.createTempFile(yamlPath.getParent(), "openapi", ".yaml.tmp");
+            try (FileWriter writer = new FileWriter(tempPath.toFile())) {
+                writer.write(spec.yaml());
             }
+            Files.move(tempPath, yamlPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("YAML saved at: {}", yamlPath);
         } catch (IOException e) {
             log.error("Failed to save YAML at {}: {}", yamlPath, e.getMessage());
             throw new IOException("Failed to save YAML: " + e.getMessage(), e);
         }
     }
 
-    public String getYamlOutputPath() {
-        return YAML_OUTPUT_PATH;
+    // Serializes an imported document straight to disk, hashing it on the way, so a large spec never exists as
+    // one String; returns its hash like the YAML of a built spec
+    public String writeSpec(OpenAPI openApi) throws IOException {
+        Path stagingDir = clientCache.artifactDir(STAGING_DIR);
+        Files.createDirectories(stagingDir);
+        Path tempPath = Files.createTempFile(stagingDir, "openapi", ".yaml.tmp");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (OutputStream out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)), digest)) {
+                OpenApiDocuments.write(openApi, out);
+            }
+            String specHash = HexFormat.of().formatHex(digest.digest());
+            if (clientCache.contains(specHash)) {
+                log.info("Spec {} already generated, skipping YAML write", specHash);
+                return specHash;
+            }
+            Path yamlPath = clientCache.specFile(specHash);
+            Files.createDirectories(yamlPath.getParent());
+            Files.move(tempPath, yamlPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("YAML saved at: {} ({} KB)", yamlPath, Files.size(yamlPath) / 1024);
+            return specHash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
     }
-}
\ No newline at end of file
+}
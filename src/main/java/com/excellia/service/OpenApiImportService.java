@@ -0,0 +1,293 @@
+package com.excellia.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.servers.Server;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+
+// Turns an uploaded OpenAPI 3.x document into a stored spec that one generated client can serve in full:
+// parameter references inlined, operationIds made unique and untagged operations spread over per-resource API
+// classes. Only one document is parsed at a time per permit, and never more than the configured size is read.
+@Service
+public class OpenApiImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenApiImportService.class);
+    private static final String PARAMETER_REF_PREFIX = "#/components/parameters/";
+    private static final int MAX_REF_DEPTH = 16;
+    private static final int MAX_REPORTED_WARNINGS = 5;
+    // Imported specs have no operationId of their own; their generation stages are tagged with this instead
+    static final String OPERATION = "import";
+
+    private final OpenApiGeneratorService openApiGeneratorService;
+    private final long maxBytes;
+    private final Semaphore parsePermits;
+    private final ObservationRegistry observations;
+
+    public OpenApiImportService(
+            OpenApiGeneratorService openApiGeneratorService,
+            ObservationRegistry observations,
+            @Value("${excellia.import.max-size-mb:50}") long maxSizeMb,
+            @Value("${excellia.import.max-concurrent:1}") int maxConcurrent) {
+        this.openApiGeneratorService = openApiGeneratorService;
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+        this.parsePermits = new Semaphore(maxConcurrent);
+        this.observations = observations;
+    }
+
+    public record ImportedSpec(String specHash, String lineage, int operations) {
+    }
+
+    // baseUrl replaces the document's servers, which are often relative or point at another environment.
+    // Throws IllegalArgumentException for documents that cannot be imported and RejectedExecutionException when
+    // every parse permit is taken.
+    public ImportedSpec importSpec(InputStream body, String baseUrl) throws IOException {
+        if (!parsePermits.tryAcquire()) {
+            throw new RejectedExecutionException("Too many spec imports in progress");
+        }
+        try {
+            return Stages.observe(observations, Stages.GENERATION, Stages.SPEC_IMPORT, OPERATION, () -> read(body, baseUrl));
+        } finally {
+            parsePermits.release();
+        }
+    }
+
+    private ImportedSpec read(InputStream body, String baseUrl) throws IOException {
+        long start = System.nanoTime();
+        SizeLimitedInputStream limited = new SizeLimitedInputStream(body, maxBytes);
+        SwaggerParseResult result;
+        try {
+            result = OpenApiDocuments.parse(limited, "upload");
+        } catch (RuntimeException | IOException e) {
+            if (limited.isExceeded()) {
+                throw new IllegalArgumentException("Spec is larger than the " + maxBytes / (1024 * 1024) + " MB import limit");
+            }
+            throw e;
+        }
+        if (result.getMessages() != null && !result.getMessages().isEmpty()) {
+            log.warn("Imported spec has {} parser warnings, first: {}", result.getMessages().size(),
+                    result.getMessages().subList(0, Math.min(MAX_REPORTED_WARNINGS, result.getMessages().size())));
+        }
+
+        OpenAPI openApi = result.getOpenAPI();
+        String serverUrl = applyServer(openApi, baseUrl);
+        int operations = normalizeOperations(openApi);
+        String specHash = openApiGeneratorService.writeSpec(openApi);
+        log.info("Imported spec {} ({} operations, {} KB read) in {} ms", specHash, operations,
+                limited.getCount() / 1024, (System.nanoTime() - start) / 1_000_000);
+        // Re-imports of the same API share a generation workspace, so only what changed is rewritten
+        String title = openApi.getInfo() != null ? openApi.getInfo().getTitle() : null;
+        return new ImportedSpec(specHash, serverUrl + "#" + title, operations);
+    }
+
+    private static String applyServer(OpenAPI openApi, String baseUrl) {
+        if (baseUrl != null && !baseUrl.isEmpty()) {
+            requireAbsolute(baseUrl);
+            openApi.setServers(new ArrayList<>(List.of(new Server().url(baseUrl))));
+            return baseUrl;
+        }
+        if (openApi.getServers() == null || openApi.getServers().isEmpty()) {
+            throw new IllegalArgumentException("Spec declares no servers; pass baseUrl");
+        }
+        String url = openApi.getServers().get(0).getUrl();
+        if (url == null || !isAbsolute(url)) {
+            throw new IllegalArgumentException("Spec server " + url + " is not an absolute URL; pass baseUrl");
+        }
+        return url;
+    }
+
+    private static void requireAbsolute(String url) {
+        if (!isAbsolute(url)) {
+            throw new IllegalArgumentException("Invalid baseUrl: " + url + ". Must be a fully qualified URL (e.g., https://example.com/path).");
+        }
+    }
+
+    private static boolean isAbsolute(String url) {
+        try {
+            URI uri = URI.create(url);
+            return ("http".equals(uri.getScheme()) || "https".equals(uri.getScheme())) && uri.getHost() != null;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static int normalizeOperations(OpenAPI openApi) {
+        if (openApi.getPaths() == null || openApi.getPaths().isEmpty()) {
+            throw new IllegalArgumentException("Spec declares no paths");
+        }
+        Components components = openApi.getComponents();
+        // $ref -> resolved parameter; large specs share a handful of parameters across thousands of operations
+        Map<String, Parameter> resolvedRefs = new HashMap<>();
+        Set<String> methodNames = new HashSet<>();
+        int operations = 0;
+        for (Map.Entry<String, PathItem> path : openApi.getPaths().entrySet()) {
+            PathItem pathItem = path.getValue();
+            List<Parameter> shared = resolve(pathItem.getParameters(), components, resolvedRefs);
+            for (Map.Entry<PathItem.HttpMethod, Operation> entry : pathItem.readOperationsMap().entrySet()) {
+                Operation operation = entry.getValue();
+                operation.setParameters(merge(shared, resolve(operation.getParameters(), components, resolvedRefs)));
+                operation.setOperationId(uniqueOperationId(operation.getOperationId(), entry.getKey(), path.getKey(), methodNames));
+                if (operation.getTags() == null || operation.getTags().isEmpty()) {
+                    // Otherwise they all land in DefaultApi, which for thousands of operations outgrows a class file
+                    operation.setTags(new ArrayList<>(List.of(resourceTag(path.getKey()))));
+                }
+                operations++;
+            }
+            pathItem.setParameters(null);
+        }
+        return operations;
+    }
+
+    private static List<Parameter> resolve(List<Parameter> parameters, Components components, Map<String, Parameter> resolvedRefs) {
+        if (parameters == null || parameters.isEmpty()) {
+            return List.of();
+        }
+        List<Parameter> resolved = new ArrayList<>(parameters.size());
+        for (Parameter parameter : parameters) {
+            resolved.add(resolve(parameter, components, resolvedRefs, 0));
+        }
+        return resolved;
+    }
+
+    private static Parameter resolve(Parameter parameter, Components components, Map<String, Parameter> resolvedRefs, int depth) {
+        String ref = parameter.get$ref();
+        if (ref == null) {
+            return parameter;
+        }
+        Parameter cached = resolvedRefs.get(ref);
+        if (cached != null) {
+            return cached;
+        }
+        if (depth >= MAX_REF_DEPTH) {
+            throw new IllegalArgumentException("Parameter reference " + ref + " is circular");
+        }
+        Parameter target = ref.startsWith(PARAMETER_REF_PREFIX) && components != null && components.getParameters() != null
+            ? components.getParameters().get(ref.substring(PARAMETER_REF_PREFIX.length()))
+            : null;
+        if (target == null) {
+            throw new IllegalArgumentException("Cannot resolve parameter reference " + ref);
+        }
+        Parameter resolved = resolve(target, components, resolvedRefs, depth + 1);
+        resolvedRefs.put(ref, resolved);
+        return resolved;
+    }
+
+    // Operation-level parameters override path-level ones with the same name and location
+    private static List<Parameter> merge(List<Parameter> shared, List<Parameter> own) {
+        if (shared.isEmpty()) {
+            return own.isEmpty() ? null : own;
+        }
+        Map<String, Parameter> merged = new LinkedHashMap<>();
+        for (Parameter parameter : shared) {
+            merged.put(parameter.getIn() + ":" + parameter.getName(), parameter);
+        }
+        for (Parameter parameter : own) {
+            merged.put(parameter.getIn() + ":" + parameter.getName(), parameter);
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    // Unique by generated method name, which ignores case and punctuation; missing ids become <method>_<path>
+    private static String uniqueOperationId(String operationId, PathItem.HttpMethod method, String path, Set<String> methodNames) {
+        String base = operationId;
+        if (base == null || base.isBlank()) {
+            StringBuilder generated = new StringBuilder(method.name().toLowerCase(Locale.ROOT));
+            for (String part : path.split("[^A-Za-z0-9]+")) {
+                if (!part.isEmpty()) {
+                    generated.append('_').append(part);
+                }
+            }
+            base = generated.toString();
+        }
+        String candidate = base;
+        for (int i = 1; !methodNames.add(methodName(candidate)); i++) {
+            candidate = base + "_" + i;
+        }
+        if (!candidate.equals(operationId)) {
+            log.debug("Operation {} {} registered as {}", method, path, candidate);
+        }
+        return candidate;
+    }
+
+    private static String methodName(String operationId) {
+        return operationId.replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ROOT);
+    }
+
+    // First literal path segment, e.g. /users/{id}/orders -> users
+    private static String resourceTag(String path) {
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty() && !segment.startsWith("{")) {
+                return segment;
+            }
+        }
+        return "default";
+    }
+
+    private static final class SizeLimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+        private boolean exceeded;
+
+        SizeLimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        boolean isExceeded() {
+            return exceeded;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(long bytes) throws IOException {
+            count += bytes;
+            if (count > limit) {
+                exceeded = true;
+                throw new IOException("Spec exceeds " + limit + " bytes");
+            }
+        }
+    }
+}
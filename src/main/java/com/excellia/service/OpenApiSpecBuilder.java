@@ -0,0 +1,147 @@
+package com.excellia.service;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Service;
+
+import com.excellia.dto.ApiConfig;
+import com.excellia.dto.PathConfig;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.BooleanSchema;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.NumberSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.PathParameter;
+import io.swagger.v3.oas.models.parameters.QueryParameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import io.swagger.v3.oas.models.servers.Server;
+
+// Builds the OpenAPI model for a /generate request: one path per PathConfig (or the single "/" path of a plain
+// ApiConfig), one operation per method, with request body schemas inferred from the sample bodies.
+@Service
+public class OpenApiSpecBuilder {
+
+    private static final Pattern URL_PATTERN = Pattern.compile("^(https?)://[a-zA-Z0-9.-]+(:[0-9]+)?(/.*)?$");
+    private static final Pattern PATH_TEMPLATE = Pattern.compile("\\{([^}/]+)}");
+    private static final Set<String> BODY_METHODS = Set.of("post", "put", "patch");
+    private static final String JSON = "application/json";
+
+    public OpenAPI build(ApiConfig config) {
+        String fullUrl = config.getUrl();
+        if (fullUrl == null || !URL_PATTERN.matcher(fullUrl).matches()) {
+            throw new IllegalArgumentException("Invalid URL: " + fullUrl + ". Must be a fully qualified URL (e.g., https://example.com/path).");
+        }
+
+        Paths paths = new Paths();
+        if (config.getPaths() == null || config.getPaths().isEmpty()) {
+            List<String> methods = config.getMethods() != null && !config.getMethods().isEmpty()
+                ? config.getMethods()
+                : List.of(config.getMethod() != null ? config.getMethod() : "get");
+            paths.addPathItem("/", pathItem("/", config.getOperationId(), methods, config.getQueryParams(),
+                    config.getBodies(), config.getBody()));
+        } else {
+            for (PathConfig path : config.getPaths()) {
+                if (path == null || path.getPath() == null || !path.getPath().startsWith("/")) {
+                    throw new IllegalArgumentException("Every path must start with '/'");
+                }
+                if (path.getOperationId() == null || path.getOperationId().isEmpty()) {
+                    throw new IllegalArgumentException("Path " + path.getPath() + " needs an operationId");
+                }
+                if (paths.containsKey(path.getPath())) {
+                    throw new IllegalArgumentException("Path " + path.getPath() + " is declared twice");
+                }
+                List<String> methods = path.getMethods() != null && !path.getMethods().isEmpty()
+                    ? path.getMethods()
+                    : List.of("get");
+                paths.addPathItem(path.getPath(), pathItem(path.getPath(), path.getOperationId(), methods,
+                        path.getQueryParams(), path.getBodies(), null));
+            }
+        }
+
+        return new OpenAPI()
+            .info(new Info().title("Generated API").version("1.0.0"))
+            .addServersItem(new Server().url(fullUrl))
+            .paths(paths);
+    }
+
+    private static PathItem pathItem(String path, String operationId, List<String> methods,
+            Map<String, String> queryParams, Map<String, Object> bodies, Object body) {
+        PathItem pathItem = new PathItem();
+        for (String method : methods) {
+            String httpMethod = method.toLowerCase(Locale.ROOT);
+            PathItem.HttpMethod verb;
+            try {
+                verb = PathItem.HttpMethod.valueOf(httpMethod.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported HTTP method: " + method, e);
+            }
+            String methodOperationId = operationId + "_" + verb.name();
+            Operation operation = new Operation()
+                .operationId(methodOperationId)
+                .summary("Auto-generated endpoint for " + methodOperationId)
+                .responses(new ApiResponses().addApiResponse("200", new ApiResponse()
+                    .description("Success")
+                    .content(json(new ObjectSchema()))));
+
+            Matcher template = PATH_TEMPLATE.matcher(path);
+            while (template.find()) {
+                operation.addParametersItem(new PathParameter().name(template.group(1)).schema(new StringSchema()));
+            }
+            if (queryParams != null) {
+                queryParams.keySet().forEach(name ->
+                    operation.addParametersItem(new QueryParameter().name(name).schema(new StringSchema())));
+            }
+
+            if (BODY_METHODS.contains(httpMethod)) {
+                Object sample = bodies != null ? bodies.get(httpMethod) : null;
+                if (sample instanceof Map<?, ?>) {
+                    operation.requestBody(new RequestBody().content(json(schemaFor(sample))));
+                } else if (body != null && !body.toString().isEmpty()) {
+                    operation.requestBody(new RequestBody().content(json(new ObjectSchema())));
+                }
+            }
+            pathItem.operation(verb, operation);
+        }
+        return pathItem;
+    }
+
+    // Nested maps become object schemas (and so generated models), lists become arrays typed by their first element
+    private static Schema<?> schemaFor(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            ObjectSchema schema = new ObjectSchema();
+            map.forEach((name, property) -> schema.addProperty(String.valueOf(name), schemaFor(property)));
+            return schema;
+        } else if (value instanceof List<?> list) {
+            return new ArraySchema().items(list.isEmpty() || list.get(0) == null ? new ObjectSchema() : schemaFor(list.get(0)));
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof BigInteger) {
+            return new IntegerSchema().format("int64");
+        } else if (value instanceof Number) {
+            return new NumberSchema();
+        } else if (value instanceof Boolean) {
+            return new BooleanSchema();
+        }
+        return new StringSchema();
+    }
+
+    private static Content json(Schema<?> schema) {
+        return new Content().addMediaType(JSON, new MediaType().schema(schema));
+    }
+}
@@ -0,0 +1,20 @@
+package com.excellia.service;
+
+import java.util.Map;
+
+// One callable operation of a spec: arguments are bound from an /execute request, then sent upstream.
+// Implemented by generated clients (InvocationPlan) and by the interpreter (InterpretedPlan).
+interface OperationPlan {
+
+    String getOperationId();
+
+    // What the debug log calls the operation: the generated method, or the interpreted method and path
+    String getMethodName();
+
+    // Lower-case HTTP method, as used for the keys of ApiConfig.bodies
+    String getHttpMethod();
+
+    Object[] bind(Map<String, String> queryParams, Object body);
+
+    Object invoke(Object[] args) throws Exception;
+}
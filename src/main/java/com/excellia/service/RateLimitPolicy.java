@@ -0,0 +1,52 @@
+package com.excellia.service;
+
+import java.util.Locale;
+
+import org.springframework.core.env.Environment;
+
+// Rate limit of one upstream or caller: defaults under excellia.rate-limit.upstream and excellia.rate-limit.caller,
+// overridable per upstream host or caller id beneath them, e.g. excellia.rate-limit.upstream.api.example.com.burst=5
+// or excellia.rate-limit.caller.reporting-job.rate-per-second=2.
+record RateLimitPolicy(
+        // Calls per second on average; 0 or less means no limit
+        double ratePerSecond,
+        // Calls that may go at once after a quiet period
+        int burst,
+        // Whether a call over the limit waits for a token (up to maxWaitMillis) rather than being rejected at once
+        boolean queue,
+        long maxWaitMillis) {
+
+    static final String PREFIX = "excellia.rate-limit.";
+
+    static RateLimitPolicy defaults(Environment env, String scope) {
+        String prefix = PREFIX + scope + ".";
+        double rate = env.getProperty(prefix + "rate-per-second", Double.class, 0.0);
+        return new RateLimitPolicy(
+            rate,
+            env.getProperty(prefix + "burst", Integer.class, Math.max(1, (int) Math.ceil(rate))),
+            queues(env.getProperty(prefix + "policy", "reject")),
+            env.getProperty(prefix + "max-wait-ms", Long.class, 1_000L));
+    }
+
+    RateLimitPolicy forKey(Environment env, String scope, String key) {
+        String prefix = PREFIX + scope + "." + key + ".";
+        double rate = env.getProperty(prefix + "rate-per-second", Double.class, ratePerSecond);
+        return new RateLimitPolicy(
+            rate,
+            env.getProperty(prefix + "burst", Integer.class, rate == ratePerSecond ? burst : Math.max(1, (int) Math.ceil(rate))),
+            env.containsProperty(prefix + "policy") ? queues(env.getProperty(prefix + "policy")) : queue,
+            env.getProperty(prefix + "max-wait-ms", Long.class, maxWaitMillis));
+    }
+
+    boolean isLimited() {
+        return ratePerSecond > 0;
+    }
+
+    private static boolean queues(String policy) {
+        return switch (policy.trim().toLowerCase(Locale.ROOT)) {
+            case "queue" -> true;
+            case "reject" -> false;
+            default -> throw new IllegalArgumentException("Unknown rate limit policy '" + policy + "', use 'reject' or 'queue'");
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.excellia.service;
+
+// A call over the rate limit of its upstream or of the caller, rejected before it reached the upstream
+public class RateLimitedException extends RuntimeException {
+
+    private final String scope;
+    private final String key;
+    private final long retryAfterMillis;
+
+    public RateLimitedException(String message, String scope, String key, long retryAfterMillis) {
+        super(message);
+        this.scope = scope;
+        this.key = key;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    // "upstream" or "caller"
+    public String getScope() {
+        return scope;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
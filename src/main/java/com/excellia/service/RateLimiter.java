@@ -0,0 +1,243 @@
+package com.excellia.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+// Token-bucket rate limits on /execute, per upstream (the server URL of the generated spec) and per caller (the
+// value of a request header). Each upstream and caller has its own bucket, so limiting one never contends with
+// another. A call over a limit either waits for its token or is rejected with a RateLimitedException, by policy.
+@Service
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    static final String UPSTREAM = "upstream";
+    static final String CALLER = "caller";
+    // Callers beyond max-callers share one bucket under this key
+    static final String OTHER_CALLERS = "other";
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final Environment environment;
+    private final boolean enabled;
+    private final String callerHeader;
+    private final int maxCallers;
+    private final RateLimitPolicy upstreamDefaults;
+    private final RateLimitPolicy callerDefaults;
+    private final Map<String, Limit> upstreams = new ConcurrentHashMap<>();
+    private final Map<String, Limit> callers = new ConcurrentHashMap<>();
+    private final Limit otherCallers;
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    public RateLimiter(Environment environment) {
+        this.environment = environment;
+        this.enabled = environment.getProperty(RateLimitPolicy.PREFIX + "enabled", Boolean.class, true);
+        this.callerHeader = environment.getProperty(RateLimitPolicy.PREFIX + "caller-header", "X-Client-Id");
+        this.maxCallers = environment.getProperty(RateLimitPolicy.PREFIX + "max-callers", Integer.class, 1000);
+        this.upstreamDefaults = RateLimitPolicy.defaults(environment, UPSTREAM);
+        this.callerDefaults = RateLimitPolicy.defaults(environment, CALLER);
+        this.otherCallers = new Limit(callerDefaults);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // The request header that identifies the caller; without it callers are told apart by address
+    public String getCallerHeader() {
+        return callerHeader;
+    }
+
+    // Once per /execute call (and batch entry), cached responses included
+    void acquireCaller(String caller) {
+        if (!enabled || caller == null) {
+            return;
+        }
+        Limit limit = callers.get(caller);
+        if (limit == null) {
+            limit = callerLimit(caller);
+        }
+        acquire(limit, CALLER, limit == otherCallers ? OTHER_CALLERS : caller);
+    }
+
+    // Once per call that goes to the upstream; retries are bounded by the retry budget instead
+    void acquireUpstream(String upstream) {
+        if (!enabled) {
+            return;
+        }
+        acquire(upstreams.computeIfAbsent(upstream, this::upstreamLimit), UPSTREAM, upstream);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("upstreams", stats(upstreams));
+        Map<String, Object> callerStats = stats(callers);
+        if (otherCallers.calls() > 0) {
+            callerStats = new TreeMap<>(callerStats);
+            callerStats.put(OTHER_CALLERS, otherCallers.stats());
+            callerStats = Collections.unmodifiableMap(callerStats);
+        }
+        stats.put("callers", callerStats);
+        return Collections.unmodifiableMap(stats);
+    }
+
+    // Limiter counters and free tokens in the Prometheus text format, appended to the stage metrics
+    public void scrape(Writer out) {
+        Map<String, Limit> series = new TreeMap<>();
+        upstreams.forEach((upstream, limit) -> series.put(labels(UPSTREAM, upstream), limit));
+        callers.forEach((caller, limit) -> series.put(labels(CALLER, caller), limit));
+        if (otherCallers.calls() > 0) {
+            series.put(labels(CALLER, OTHER_CALLERS), otherCallers);
+        }
+        if (series.isEmpty()) {
+            return;
+        }
+        try {
+            out.write("# TYPE excellia_rate_limit_calls_total counter\n");
+            for (Map.Entry<String, Limit> entry : series.entrySet()) {
+                Limit limit = entry.getValue();
+                out.write("excellia_rate_limit_calls_total{" + entry.getKey() + ",outcome=\"allowed\"} " + limit.allowed.sum() + "\n");
+                out.write("excellia_rate_limit_calls_total{" + entry.getKey() + ",outcome=\"queued\"} " + limit.queued.sum() + "\n");
+                out.write("excellia_rate_limit_calls_total{" + entry.getKey() + ",outcome=\"rejected\"} " + limit.rejected.sum() + "\n");
+            }
+            out.write("# TYPE excellia_rate_limit_wait_seconds_total counter\n");
+            for (Map.Entry<String, Limit> entry : series.entrySet()) {
+                out.write("excellia_rate_limit_wait_seconds_total{" + entry.getKey() + "} "
+                        + entry.getValue().waitNanos.sum() / 1_000_000_000.0 + "\n");
+            }
+            out.write("# TYPE excellia_rate_limit_tokens gauge\n");
+            for (Map.Entry<String, Limit> entry : series.entrySet()) {
+                if (entry.getValue().bucket != null) {
+                    out.write("excellia_rate_limit_tokens{" + entry.getKey() + "} " + entry.getValue().bucket.available() + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write rate limit metrics", e);
+        }
+    }
+
+    private void acquire(Limit limit, String scope, String key) {
+        if (limit.bucket == null) {
+            limit.allowed.increment();
+            return;
+        }
+        RateLimitPolicy policy = limit.policy;
+        long wait = limit.bucket.reserve(policy.queue() ? TimeUnit.MILLISECONDS.toNanos(policy.maxWaitMillis()) : 0);
+        if (wait < 0) {
+            limit.rejected.increment();
+            throw new RateLimitedException("Rate limit of " + policy.ratePerSecond() + " calls per second exceeded for "
+                    + scope + " " + key, scope, key, TimeUnit.NANOSECONDS.toMillis(-wait) + 1);
+        }
+        if (wait == 0) {
+            limit.allowed.increment();
+            return;
+        }
+        limit.queued.increment();
+        limit.waitNanos.add(wait);
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RateLimitedException("Interrupted while queued on the rate limit of " + scope + " " + key,
+                    scope, key, 0);
+        }
+    }
+
+    private Limit callerLimit(String caller) {
+        if (callers.size() >= maxCallers) {
+            sweepCallers();
+            if (callers.size() >= maxCallers) {
+                return otherCallers;
+            }
+        }
+        return callers.computeIfAbsent(caller, key -> new Limit(callerDefaults.forKey(environment, CALLER, key)));
+    }
+
+    // Forgets callers whose bucket has filled up again, at most once a second, to make room for new ones
+    private void sweepCallers() {
+        long last = lastSweep.get();
+        long now = System.nanoTime();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        int before = callers.size();
+        callers.values().removeIf(limit -> limit.bucket == null || limit.bucket.isFull());
+        log.debug("Dropped {} idle callers from the rate limiter", before - callers.size());
+    }
+
+    private Limit upstreamLimit(String upstream) {
+        RateLimitPolicy policy = upstreamDefaults;
+        String host = host(upstream);
+        if (host != null) {
+            policy = upstreamDefaults.forKey(environment, UPSTREAM, host);
+        }
+        log.debug("Rate limit for upstream {}: {}", upstream, policy);
+        return new Limit(policy);
+    }
+
+    private static Map<String, Object> stats(Map<String, Limit> limits) {
+        Map<String, Object> stats = new TreeMap<>();
+        limits.forEach((key, limit) -> stats.put(key, limit.stats()));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private static String labels(String scope, String key) {
+        return "scope=\"" + scope + "\",key=\"" + StageMetrics.escape(key) + "\"";
+    }
+
+    private static String host(String upstream) {
+        try {
+            return URI.create(upstream).getHost();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static final class Limit {
+        private final RateLimitPolicy policy;
+        // Null when the policy sets no limit; calls are still counted
+        private final TokenBucket bucket;
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder queued = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+
+        Limit(RateLimitPolicy policy) {
+            this.policy = policy;
+            this.bucket = policy.isLimited() ? new TokenBucket(policy.ratePerSecond(), policy.burst()) : null;
+        }
+
+        long calls() {
+            return allowed.sum() + queued.sum() + rejected.sum();
+        }
+
+        Map<String, Object> stats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            if (bucket != null) {
+                stats.put("ratePerSecond", policy.ratePerSecond());
+                stats.put("burst", policy.burst());
+                stats.put("policy", policy.queue() ? "queue" : "reject");
+                stats.put("availableTokens", bucket.available());
+            }
+            stats.put("allowed", allowed.sum());
+            stats.put("queued", queued.sum());
+            stats.put("rejected", rejected.sum());
+            stats.put("waitMillis", TimeUnit.NANOSECONDS.toMillis(waitNanos.sum()));
+            return Collections.unmodifiableMap(stats);
+        }
+    }
+}
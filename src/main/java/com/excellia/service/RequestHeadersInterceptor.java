@@ -0,0 +1,43 @@
+package com.excellia.service;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+// Applies the headers of the request being executed on this thread to the outgoing upstream call,
+// so shared generated clients never carry one caller's headers (or credentials) into another's request.
+class RequestHeadersInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final ThreadLocal<Map<String, String>> CURRENT = new ThreadLocal<>();
+    private static final Scope NO_OP = () -> { };
+
+    interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    static Scope open(Map<String, String> headers) {
+        if (headers == null || headers.isEmpty()) {
+            return NO_OP;
+        }
+        Map<String, String> previous = CURRENT.get();
+        CURRENT.set(headers);
+        return previous == null ? CURRENT::remove : () -> CURRENT.set(previous);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Map<String, String> headers = CURRENT.get();
+        if (headers != null) {
+            HttpHeaders requestHeaders = request.getHeaders();
+            headers.forEach(requestHeaders::set);
+        }
+        return execution.execute(request, body);
+    }
+}
@@ -0,0 +1,84 @@
+package com.excellia.service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.excellia.dto.ApiConfig;
+
+// One structured line per sampled /execute call, decided before anything is formatted, so unsampled calls
+// allocate nothing for logging. Operations switched to debug log every call with parameter values, body and
+// response, and their upstream traffic (DebugTrafficInterceptor). Header values are never logged.
+// Turn the whole log off with logging.level.com.excellia.service.RequestLog=OFF.
+@Service
+public class RequestLog {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestLog.class);
+
+    enum Detail { NONE, SUMMARY, FULL }
+
+    private final double sampleRate;
+    private final Set<String> debugOperations = ConcurrentHashMap.newKeySet();
+
+    public RequestLog(
+            @Value("${excellia.request-log.sample-rate:0.01}") double sampleRate,
+            @Value("${excellia.request-log.debug-operations:}") Set<String> debugOperations) {
+        this.sampleRate = sampleRate;
+        this.debugOperations.addAll(debugOperations);
+    }
+
+    public Set<String> getDebugOperations() {
+        return Set.copyOf(debugOperations);
+    }
+
+    public void setDebug(String operationId, boolean enabled) {
+        if (enabled ? debugOperations.add(operationId) : debugOperations.remove(operationId)) {
+            log.info("Debug logging {} for operation {}", enabled ? "enabled" : "disabled", operationId);
+        }
+    }
+
+    Detail detailFor(String operationId) {
+        if (!log.isInfoEnabled()) {
+            return Detail.NONE;
+        }
+        if (!debugOperations.isEmpty() && debugOperations.contains(operationId)) {
+            return Detail.FULL;
+        }
+        if (sampleRate >= 1 || sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            return Detail.SUMMARY;
+        }
+        return Detail.NONE;
+    }
+
+    void logCall(Detail detail, String operationId, ApiConfig config, Object result, Throwable error, long nanos) {
+        String httpMethod = config.getMethod() != null ? config.getMethod().toLowerCase(Locale.ROOT) : "get";
+        String status = error == null ? "success" : "error";
+        if (detail == Detail.FULL) {
+            log.info("execute operation={} method={} status={} duration_us={} params={} headers={} body={} response={}",
+                    operationId, httpMethod, status, nanos / 1_000, config.getQueryParams(), keys(config.getHeaders()),
+                    requestBody(config, httpMethod), error == null ? result : error.toString());
+        } else if (detail == Detail.SUMMARY) {
+            log.info("execute operation={} method={} status={} duration_us={} params={} headers={} body={}",
+                    operationId, httpMethod, status, nanos / 1_000, keys(config.getQueryParams()),
+                    keys(config.getHeaders()), requestBody(config, httpMethod) != null);
+        }
+    }
+
+    private static Object keys(Map<String, ?> map) {
+        return map != null ? map.keySet() : Set.of();
+    }
+
+    private static Object requestBody(ApiConfig config, String httpMethod) {
+        if (config.getBodies() != null && config.getBodies().containsKey(httpMethod)) {
+            return config.getBodies().get(httpMethod);
+        }
+        return config.getBody();
+    }
+}
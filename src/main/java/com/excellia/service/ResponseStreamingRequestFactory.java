@@ -0,0 +1,165 @@
+package com.excellia.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.BufferingClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+// Request factory behind every generated client. Responses are buffered only while DebugTrafficInterceptor is
+// logging the call, so it can re-read them; otherwise the generated client reads the upstream stream. While a sink is open on the current thread it instead copies the upstream body straight into the
+// sink through a fixed-size buffer and hands the generated client an empty 204, so nothing is deserialized or held.
+// A response transform open on the thread is applied to successful JSON responses on the way: into the sink, or
+// into the transform's own result that the call returns instead.
+class ResponseStreamingRequestFactory implements ClientHttpRequestFactory {
+
+    private static final ThreadLocal<Target> CURRENT = new ThreadLocal<>();
+    // Describe the upstream body, not the transformed one
+    private static final String[] BODY_HEADERS = {HttpHeaders.CONTENT_LENGTH, HttpHeaders.ETAG, "Content-MD5"};
+
+    private final ClientHttpRequestFactory requestFactory;
+    private final ClientHttpRequestFactory bufferingRequestFactory;
+    private final JsonFactory jsonFactory;
+
+    ResponseStreamingRequestFactory(ClientHttpRequestFactory requestFactory, JsonFactory jsonFactory) {
+        this.requestFactory = requestFactory;
+        this.bufferingRequestFactory = new BufferingClientHttpRequestFactory(requestFactory);
+        this.jsonFactory = jsonFactory;
+    }
+
+    static RequestHeadersInterceptor.Scope open(UpstreamResponseSink sink) {
+        return open(sink, null);
+    }
+
+    static RequestHeadersInterceptor.Scope open(UpstreamResponseSink sink, ResponseTransformer transform) {
+        if (sink == null && transform == null) {
+            return () -> { };
+        }
+        Target previous = CURRENT.get();
+        CURRENT.set(new Target(sink, transform));
+        return previous == null ? CURRENT::remove : () -> CURRENT.set(previous);
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        Target target = CURRENT.get();
+        if (target == null) {
+            return (DebugTrafficInterceptor.isActive() ? bufferingRequestFactory : requestFactory).createRequest(uri, httpMethod);
+        }
+        return new StreamingRequest(requestFactory.createRequest(uri, httpMethod), target, jsonFactory);
+    }
+
+    private record Target(UpstreamResponseSink sink, ResponseTransformer transform) {
+    }
+
+    private static final class StreamingRequest implements ClientHttpRequest {
+        private final ClientHttpRequest delegate;
+        private final UpstreamResponseSink sink;
+        private final ResponseTransformer transform;
+        private final JsonFactory jsonFactory;
+
+        StreamingRequest(ClientHttpRequest delegate, Target target, JsonFactory jsonFactory) {
+            this.delegate = delegate;
+            this.sink = target.sink();
+            this.transform = target.transform();
+            this.jsonFactory = jsonFactory;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            ClientHttpResponse response = delegate.execute();
+            if (transform != null && response.getStatusCode().is2xxSuccessful()) {
+                try (response) {
+                    transform(response);
+                }
+                return new NoContentResponse();
+            }
+            if (sink == null) {
+                // Not transformed; the generated client reports the upstream error as usual
+                return response;
+            }
+            try (response) {
+                // Upstream errors are passed through as well; the caller sees the upstream status, not an exception
+                OutputStream out = sink.open(response.getStatusCode(), response.getHeaders());
+                try (InputStream in = response.getBody()) {
+                    in.transferTo(out);
+                }
+                out.flush();
+            }
+            return new NoContentResponse();
+        }
+
+        // Whatever the transform leaves out of the response is never read; it stops at the end of the page
+        private void transform(ClientHttpResponse response) throws IOException {
+            HttpHeaders headers = response.getHeaders();
+            MediaType contentType = headers.getContentType();
+            if (contentType != null && !MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                    && !contentType.getSubtype().endsWith("+json")) {
+                throw new ResponseTransformException("Cannot transform a " + contentType + " response, only JSON");
+            }
+            String encoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+            if (encoding != null && !"identity".equalsIgnoreCase(encoding)) {
+                throw new ResponseTransformException("Cannot transform a response with Content-Encoding " + encoding);
+            }
+            try (InputStream in = response.getBody(); JsonParser parser = jsonFactory.createParser(in)) {
+                if (sink == null) {
+                    transform.transform(parser);
+                    return;
+                }
+                HttpHeaders transformed = new HttpHeaders();
+                transformed.putAll(headers);
+                for (String header : BODY_HEADERS) {
+                    transformed.remove(header);
+                }
+                transformed.setContentType(contentType != null ? contentType : MediaType.APPLICATION_JSON);
+                OutputStream out = sink.open(response.getStatusCode(), transformed);
+                try (JsonGenerator generator = jsonFactory.createGenerator(StreamUtils.nonClosing(out))) {
+                    transform.transform(parser, generator);
+                }
+                out.flush();
+            } catch (JsonProcessingException e) {
+                throw new ResponseTransformException("Cannot transform the upstream response: "
+                        + e.getOriginalMessage(), e);
+            }
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return delegate.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return delegate.getURI();
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return delegate.getAttributes();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.excellia.service;
+
+// A response transform that is invalid, or that does not fit the response it was applied to
+public class ResponseTransformException extends IllegalArgumentException {
+
+    public ResponseTransformException(String message) {
+        super(message);
+    }
+
+    public ResponseTransformException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
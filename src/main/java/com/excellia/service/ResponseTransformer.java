@@ -0,0 +1,372 @@
+package com.excellia.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import com.excellia.dto.ResponseTransform;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+// One call's ResponseTransform, applied to the upstream JSON while it is parsed: everything outside the items
+// array and the selected fields is skipped token by token without being materialized, and reading stops once the
+// page is full. Only an item that has conditions to meet is buffered, one at a time.
+final class ResponseTransformer {
+
+    private static final String ANY = "*";
+    // A field the pointer reaches that holds an object or array rather than a value
+    private static final Object STRUCTURE = new Object();
+
+    private final JsonPointer items;
+    private final List<Condition> where;
+    private final int offset;
+    private final int limit;
+    private final boolean paged;
+    // Null when every field is kept
+    private final Selection select;
+    private TokenBuffer result;
+
+    private ResponseTransformer(JsonPointer items, List<Condition> where, int offset, int limit, Selection select) {
+        this.items = items;
+        this.where = where;
+        this.offset = offset;
+        this.limit = limit;
+        this.paged = items != null || !where.isEmpty() || offset > 0 || limit < Integer.MAX_VALUE;
+        this.select = select;
+    }
+
+    // Checked before the upstream is called; null when the call has no transform
+    static ResponseTransformer of(ResponseTransform transform) {
+        if (transform == null) {
+            return null;
+        }
+        int offset = transform.getOffset() != null ? transform.getOffset() : 0;
+        int limit = transform.getLimit() != null ? transform.getLimit() : Integer.MAX_VALUE;
+        if (offset < 0 || limit < 0) {
+            throw new ResponseTransformException("Transform offset and limit may not be negative");
+        }
+        List<Condition> where = new ArrayList<>();
+        if (transform.getWhere() != null) {
+            for (ResponseTransform.Condition condition : transform.getWhere()) {
+                where.add(Condition.of(condition));
+            }
+        }
+        Selection select = null;
+        if (transform.getSelect() != null && !transform.getSelect().isEmpty()) {
+            select = new Selection();
+            for (String pointer : transform.getSelect()) {
+                select.add(pointer(pointer, true));
+            }
+            select.spread();
+        }
+        JsonPointer items = transform.getItems() != null ? pointer(transform.getItems(), false) : null;
+        return new ResponseTransformer(items, where, offset, limit, select);
+    }
+
+    // Reads one JSON document from `in` and writes the transformed one to `out`
+    void transform(JsonParser in, JsonGenerator out) throws IOException {
+        if (in.nextToken() == null) {
+            out.writeNull();
+            return;
+        }
+        if (!paged) {
+            project(in, out, select);
+            return;
+        }
+        if (items != null && !seek(in, items)) {
+            out.writeStartArray();
+            out.writeEndArray();
+            return;
+        }
+        if (in.currentToken() != JsonToken.START_ARRAY) {
+            throw new ResponseTransformException("Cannot filter or page the response: "
+                    + (items != null ? items : "it") + " is not an array");
+        }
+        out.writeStartArray();
+        int skipped = 0;
+        int written = 0;
+        while (written < limit && in.nextToken() != JsonToken.END_ARRAY) {
+            if (where.isEmpty()) {
+                if (skipped < offset) {
+                    in.skipChildren();
+                    skipped++;
+                    continue;
+                }
+                project(in, out, select);
+                written++;
+                continue;
+            }
+            TokenBuffer item = new TokenBuffer(in);
+            item.copyCurrentStructure(in);
+            if (!matches(item) || skipped++ < offset) {
+                continue;
+            }
+            try (JsonParser itemParser = item.asParserOnFirstToken()) {
+                project(itemParser, out, select);
+            }
+            written++;
+        }
+        out.writeEndArray();
+    }
+
+    // Transforms into a token buffer, which the response writer replays as JSON
+    void transform(JsonParser in) throws IOException {
+        TokenBuffer buffer = new TokenBuffer(in);
+        transform(in, buffer);
+        result = buffer;
+    }
+
+    Object getResult() {
+        return result;
+    }
+
+    private boolean matches(TokenBuffer item) throws IOException {
+        for (Condition condition : where) {
+            try (JsonParser parser = item.asParserOnFirstToken()) {
+                boolean present = seek(parser, condition.pointer());
+                if (!condition.test(present ? value(parser) : null, present)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Writes the value the parser is on, keeping only the selected fields of it
+    private static void project(JsonParser in, JsonGenerator out, Selection selection) throws IOException {
+        if (selection == null || selection.whole) {
+            out.copyCurrentStructure(in);
+            return;
+        }
+        JsonToken token = in.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            out.writeStartObject();
+            while (in.nextToken() == JsonToken.FIELD_NAME) {
+                String name = in.currentName();
+                Selection child = selection.child(name);
+                if (!selectable(in.nextToken(), child)) {
+                    in.skipChildren();
+                    continue;
+                }
+                out.writeFieldName(name);
+                project(in, out, child);
+            }
+            out.writeEndObject();
+        } else if (token == JsonToken.START_ARRAY) {
+            out.writeStartArray();
+            for (int index = 0; in.nextToken() != JsonToken.END_ARRAY; index++) {
+                Selection child = selection.element(index);
+                if (!selectable(in.currentToken(), child)) {
+                    in.skipChildren();
+                    continue;
+                }
+                project(in, out, child);
+            }
+            out.writeEndArray();
+        } else {
+            // A value where the pointers expected an object or array: none of them match
+            out.writeNull();
+        }
+    }
+
+    // A selected field's value; fields selected only for some of their members need an object or array
+    private static boolean selectable(JsonToken token, Selection child) {
+        return child != null && (child.whole || token.isStructStart());
+    }
+
+    // Moves the parser from the start of a value to the value at the pointer below it, skipping everything else
+    // on the way. False when there is none; the parser is then somewhere inside the value.
+    private static boolean seek(JsonParser in, JsonPointer pointer) throws IOException {
+        for (; !pointer.matches(); pointer = pointer.tail()) {
+            JsonToken token = in.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                String name = pointer.getMatchingProperty();
+                boolean found = false;
+                while (in.nextToken() == JsonToken.FIELD_NAME) {
+                    boolean match = name.equals(in.currentName());
+                    in.nextToken();
+                    if (match) {
+                        found = true;
+                        break;
+                    }
+                    in.skipChildren();
+                }
+                if (!found) {
+                    return false;
+                }
+            } else if (token == JsonToken.START_ARRAY && pointer.getMatchingIndex() >= 0) {
+                int target = pointer.getMatchingIndex();
+                boolean found = false;
+                for (int index = 0; in.nextToken() != JsonToken.END_ARRAY; index++) {
+                    if (index == target) {
+                        found = true;
+                        break;
+                    }
+                    in.skipChildren();
+                }
+                if (!found) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object value(JsonParser in) throws IOException {
+        return switch (in.currentToken()) {
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> in.getDecimalValue();
+            case VALUE_STRING -> in.getText();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_NULL -> null;
+            default -> STRUCTURE;
+        };
+    }
+
+    private static JsonPointer pointer(String pointer, boolean wildcards) {
+        JsonPointer compiled;
+        try {
+            compiled = JsonPointer.compile(pointer);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseTransformException("Invalid JSON pointer '" + pointer + "': " + e.getMessage(), e);
+        }
+        if (!wildcards) {
+            for (JsonPointer segment = compiled; !segment.matches(); segment = segment.tail()) {
+                if (ANY.equals(segment.getMatchingProperty())) {
+                    throw new ResponseTransformException("Only select pointers may contain *: " + pointer);
+                }
+            }
+        }
+        return compiled;
+    }
+
+    private record Condition(JsonPointer pointer, Op op, Object value) {
+
+        enum Op { EQ, NE, GT, GTE, LT, LTE, IN, EXISTS }
+
+        private static final int UNORDERED = Integer.MIN_VALUE;
+
+        static Condition of(ResponseTransform.Condition condition) {
+            if (condition == null || condition.getPointer() == null || condition.getOp() == null) {
+                throw new ResponseTransformException("Every transform condition needs a pointer and an op");
+            }
+            Op op;
+            try {
+                op = Op.valueOf(condition.getOp().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseTransformException("Unknown transform op '" + condition.getOp()
+                        + "', use eq, ne, gt, gte, lt, lte, in or exists");
+            }
+            Object value = condition.getValue();
+            if (op == Op.IN) {
+                if (!(value instanceof List<?> values)) {
+                    throw new ResponseTransformException("Transform op 'in' needs a list value");
+                }
+                value = values.stream().map(Condition::normalize).toList();
+            } else if (op == Op.EXISTS) {
+                value = value == null || Boolean.TRUE.equals(value) || "true".equals(value);
+            } else {
+                value = normalize(value);
+            }
+            return new Condition(ResponseTransformer.pointer(condition.getPointer(), false), op, value);
+        }
+
+        // `actual` is the value at the pointer (STRUCTURE for an object or array), `present` whether there was one
+        boolean test(Object actual, boolean present) {
+            int order = compare(actual);
+            return switch (op) {
+                case EXISTS -> present == (Boolean) value;
+                case EQ -> present && same(actual, value);
+                case NE -> !present || !same(actual, value);
+                case IN -> present && ((List<?>) value).stream().anyMatch(candidate -> same(actual, candidate));
+                case GT -> order != UNORDERED && order > 0;
+                case GTE -> order != UNORDERED && order >= 0;
+                case LT -> order != UNORDERED && order < 0;
+                case LTE -> order != UNORDERED && order <= 0;
+            };
+        }
+
+        // UNORDERED when the two cannot be ordered, e.g. a number and a string
+        private int compare(Object actual) {
+            if (actual instanceof BigDecimal number && value instanceof BigDecimal expected) {
+                return Integer.signum(number.compareTo(expected));
+            }
+            if (actual instanceof String text && value instanceof String expected) {
+                return Integer.signum(text.compareTo(expected));
+            }
+            return UNORDERED;
+        }
+
+        private static boolean same(Object actual, Object expected) {
+            if (actual instanceof BigDecimal number && expected instanceof BigDecimal other) {
+                return number.compareTo(other) == 0;
+            }
+            return actual != STRUCTURE && Objects.equals(actual, expected);
+        }
+
+        private static Object normalize(Object value) {
+            return value instanceof Number number ? new BigDecimal(number.toString()) : value;
+        }
+    }
+
+    // The selected pointers as a tree of field names (or array indexes, or *)
+    private static final class Selection {
+        private final Map<String, Selection> children = new HashMap<>();
+        private boolean indexed;
+        private boolean whole;
+
+        void add(JsonPointer pointer) {
+            Selection node = this;
+            for (; !pointer.matches() && !node.whole; pointer = pointer.tail()) {
+                String name = pointer.getMatchingProperty();
+                node.indexed |= pointer.getMatchingIndex() >= 0;
+                node = node.children.computeIfAbsent(name, key -> new Selection());
+            }
+            node.whole = true;
+            node.children.clear();
+        }
+
+        // Adds what * selects to every named sibling, which would otherwise shadow it
+        void spread() {
+            Selection any = children.get(ANY);
+            children.forEach((name, child) -> {
+                if (any != null && child != any) {
+                    child.merge(any);
+                }
+                child.spread();
+            });
+        }
+
+        private void merge(Selection other) {
+            if (whole) {
+                return;
+            }
+            if (other.whole) {
+                whole = true;
+                children.clear();
+                return;
+            }
+            indexed |= other.indexed;
+            other.children.forEach((name, child) -> children.computeIfAbsent(name, key -> new Selection()).merge(child));
+        }
+
+        Selection child(String name) {
+            Selection child = children.get(name);
+            return child != null ? child : children.get(ANY);
+        }
+
+        Selection element(int index) {
+            return indexed ? child(Integer.toString(index)) : children.get(ANY);
+        }
+    }
+}
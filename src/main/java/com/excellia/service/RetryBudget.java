@@ -0,0 +1,47 @@
+package com.excellia.service;
+
+// Caps retries to an upstream at a ratio of the calls made to it, so retries cannot multiply the load on an
+// upstream that is already failing. Counted over fixed windows; the floor keeps low-traffic upstreams retrying.
+final class RetryBudget {
+
+    static final long WINDOW_NANOS = 10_000_000_000L;
+
+    private final double ratio;
+    private final int minRetries;
+    private long windowStart = System.nanoTime();
+    private int calls;
+    private int retries;
+
+    RetryBudget(UpstreamPolicy policy) {
+        this.ratio = policy.budgetRatio();
+        this.minRetries = policy.budgetMinRetriesPerSecond() * (int) (WINDOW_NANOS / 1_000_000_000L);
+    }
+
+    synchronized void onCall() {
+        roll();
+        calls++;
+    }
+
+    synchronized boolean tryRetry() {
+        roll();
+        if (retries >= minRetries + ratio * calls) {
+            return false;
+        }
+        retries++;
+        return true;
+    }
+
+    synchronized int getRetries() {
+        roll();
+        return retries;
+    }
+
+    private void roll() {
+        long now = System.nanoTime();
+        if (now - windowStart >= WINDOW_NANOS) {
+            windowStart = now;
+            calls = 0;
+            retries = 0;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.excellia.service;
+
+import io.swagger.v3.oas.models.OpenAPI;
+
+// A built spec: the model handed to the generator, and its YAML form, which is both the persisted
+// artifact and the content its hash is taken over.
+public record SpecDocument(String specHash, OpenAPI openApi, String yaml) {
+}
@@ -0,0 +1,174 @@
+package com.excellia.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+
+// Turns finished observations into latency histograms, one series per observation name and low-cardinality
+// key values plus the outcome, and renders them in the Prometheus text format. It plays the part of Micrometer's
+// DefaultMeterObservationHandler, so the instrumented code would not change if a MeterRegistry took over.
+@Service
+public class StageMetrics implements ObservationHandler<Observation.Context> {
+
+    // Seconds; covers a cached bind step up to a codegen run of a large imported spec
+    private static final double[] BUCKETS = {0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120, 300};
+    private static final String START_KEY = StageMetrics.class.getName() + ".start";
+    private static final String OTHER_OPERATIONS = "other";
+
+    private final int maxOperations;
+    // operationIds that got their own series; the rest are reported as "other"
+    private final Set<String> operations = ConcurrentHashMap.newKeySet();
+    private final Map<Series, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public StageMetrics(@Value("${excellia.metrics.max-operations:1000}") int maxOperations) {
+        this.maxOperations = maxOperations;
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return true;
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        context.put(START_KEY, System.nanoTime());
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        Long start = context.get(START_KEY);
+        if (start == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        Map<String, String> tags = new TreeMap<>();
+        for (KeyValue keyValue : context.getLowCardinalityKeyValues()) {
+            tags.put(keyValue.getKey(), keyValue.getValue());
+        }
+        tags.computeIfPresent(Stages.OPERATION_KEY, (key, operationId) -> boundedOperation(operationId));
+        tags.putIfAbsent("status", context.getError() == null ? "success" : "error");
+        histograms.computeIfAbsent(new Series(metricName(context.getName()), labels(tags)), series -> new Histogram())
+            .record(nanos);
+    }
+
+    public void scrape(Writer out) {
+        Map<String, Map<String, Histogram>> byName = new TreeMap<>();
+        histograms.forEach((series, histogram) ->
+            byName.computeIfAbsent(series.name(), name -> new TreeMap<>()).put(series.labels(), histogram));
+        try {
+            for (Map.Entry<String, Map<String, Histogram>> metric : byName.entrySet()) {
+                String name = metric.getKey();
+                out.write("# TYPE " + name + " histogram\n");
+                for (Map.Entry<String, Histogram> series : metric.getValue().entrySet()) {
+                    series.getValue().write(out, name, series.getKey());
+                }
+                out.write("# TYPE " + name + "_max gauge\n");
+                for (Map.Entry<String, Histogram> series : metric.getValue().entrySet()) {
+                    out.write(name + "_max" + braces(series.getKey()) + " " + seconds(series.getValue().maxNanos.get()) + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write metrics", e);
+        }
+    }
+
+    private String boundedOperation(String operationId) {
+        if (operations.contains(operationId)) {
+            return operationId;
+        }
+        if (operations.size() >= maxOperations) {
+            return OTHER_OPERATIONS;
+        }
+        operations.add(operationId);
+        return operationId;
+    }
+
+    // excellia.execute -> excellia_execute_seconds
+    private static String metricName(String observationName) {
+        return sanitize(observationName) + "_seconds";
+    }
+
+    private static String labels(Map<String, String> tags) {
+        StringBuilder labels = new StringBuilder();
+        tags.forEach((key, value) -> {
+            if (labels.length() > 0) {
+                labels.append(',');
+            }
+            labels.append(sanitize(key)).append("=\"").append(escape(value)).append('"');
+        });
+        return labels.toString();
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^A-Za-z0-9_]", "_").toLowerCase(Locale.ROOT);
+    }
+
+    static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String braces(String labels) {
+        return labels.isEmpty() ? "" : "{" + labels + "}";
+    }
+
+    private static String seconds(double nanos) {
+        return Double.toString(nanos / 1_000_000_000.0);
+    }
+
+    private record Series(String name, String labels) {
+    }
+
+    private static final class Histogram {
+        // Per-bucket (not cumulative) counts; the last slot is +Inf
+        private final LongAdder[] buckets = new LongAdder[BUCKETS.length + 1];
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sumNanos = new DoubleAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        Histogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            double seconds = nanos / 1_000_000_000.0;
+            int bucket = 0;
+            while (bucket < BUCKETS.length && seconds > BUCKETS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+            count.increment();
+            sumNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        void write(Writer out, String name, String labels) throws IOException {
+            String prefix = labels.isEmpty() ? "{" : "{" + labels + ",";
+            long cumulative = 0;
+            for (int i = 0; i < BUCKETS.length; i++) {
+                cumulative += buckets[i].sum();
+                out.write(name + "_bucket" + prefix + "le=\"" + BUCKETS[i] + "\"} " + cumulative + "\n");
+            }
+            cumulative += buckets[BUCKETS.length].sum();
+            out.write(name + "_bucket" + prefix + "le=\"+Inf\"} " + cumulative + "\n");
+            out.write(name + "_count" + braces(labels) + " " + cumulative + "\n");
+            out.write(name + "_sum" + braces(labels) + " " + seconds(sumNanos.sum()) + "\n");
+        }
+    }
+}
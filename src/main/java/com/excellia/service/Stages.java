@@ -0,0 +1,48 @@
+package com.excellia.service;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+// Names and tags of the observations around each step of /generate, /import and /execute.
+// Metrics (StageMetrics) and spans (TraceSpanHandler) are both fed from these.
+public final class Stages {
+
+    public static final String GENERATION = "excellia.generation";
+    public static final String EXECUTE = "excellia.execute";
+    public static final String OPERATION_KEY = "operation.id";
+    public static final String STAGE_KEY = "stage";
+
+    // /generate and /import; a job spans the steps after the spec is built or imported
+    public static final String JOB = "job";
+    public static final String SPEC_BUILD = "spec_build";
+    public static final String SPEC_IMPORT = "spec_import";
+    public static final String SPEC_WRITE = "spec_write";
+    public static final String CODEGEN = "codegen";
+    public static final String COMPILE_LOAD = "compile_load";
+
+    // /execute; a call spans all the steps below
+    public static final String CALL = "call";
+    public static final String CLIENT_LOOKUP = "client_lookup";
+    public static final String BIND = "bind";
+    public static final String UPSTREAM = "upstream";
+    public static final String SERIALIZE = "serialize";
+
+    private Stages() {
+    }
+
+    public static Observation of(ObservationRegistry registry, String name, String stage, String operationId) {
+        return Observation.createNotStarted(name, registry)
+            .lowCardinalityKeyValue(STAGE_KEY, stage)
+            .lowCardinalityKeyValue(OPERATION_KEY, operationId != null ? operationId : "none");
+    }
+
+    public static <T, E extends Throwable> T observe(ObservationRegistry registry, String name, String stage,
+            String operationId, Observation.CheckedCallable<T, E> work) throws E {
+        return of(registry, name, stage, operationId).observeChecked(work);
+    }
+
+    public static <E extends Throwable> void run(ObservationRegistry registry, String name, String stage,
+            String operationId, Observation.CheckedRunnable<E> work) throws E {
+        of(registry, name, stage, operationId).observeChecked(work);
+    }
+}
@@ -0,0 +1,48 @@
+package com.excellia.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket kept as the single instant at which it will be full again (the GCRA form of a token bucket). Taking
+// a token is one compare-and-set on that instant, so calls through the same bucket never lock and different buckets
+// share nothing.
+final class TokenBucket {
+
+    // Time to refill one token, and the whole bucket
+    private final long intervalNanos;
+    private final long capacityNanos;
+    // In the past when the bucket is full; a token is free while it is less than capacityNanos ahead
+    private final AtomicLong fullAt;
+
+    TokenBucket(double ratePerSecond, int burst) {
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000L / ratePerSecond));
+        this.capacityNanos = intervalNanos * Math.max(1, burst);
+        this.fullAt = new AtomicLong(System.nanoTime());
+    }
+
+    // Takes a token that is free now or will be within maxWaitNanos, and returns how long to wait for it (0 to go
+    // at once). When none will be, takes nothing and returns minus the time until one is free.
+    long reserve(long maxWaitNanos) {
+        while (true) {
+            long now = System.nanoTime();
+            long current = fullAt.get();
+            long next = (current - now > 0 ? current : now) + intervalNanos;
+            long wait = next - now - capacityNanos;
+            if (wait > maxWaitNanos) {
+                return -wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    // Tokens free right now; waiting callers have taken theirs already
+    double available() {
+        long ahead = Math.max(0, fullAt.get() - System.nanoTime());
+        return Math.max(0, capacityNanos - ahead) / (double) intervalNanos;
+    }
+
+    boolean isFull() {
+        return fullAt.get() - System.nanoTime() <= 0;
+    }
+}
@@ -0,0 +1,63 @@
+package com.excellia.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationView;
+
+// Opt-in spans without a tracing backend: every observation gets W3C-style trace and span ids (children share
+// their parent's trace, so one /execute is one trace) and is logged when it stops. A Micrometer Tracing bridge
+// can replace this handler on the same observations.
+public class TraceSpanHandler implements ObservationHandler<Observation.Context> {
+
+    private static final Logger log = LoggerFactory.getLogger(TraceSpanHandler.class);
+    private static final String SPAN_KEY = TraceSpanHandler.class.getName() + ".span";
+
+    record Span(String traceId, String spanId, String parentId, long startNanos) {
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return true;
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        Span parent = parentSpan(context);
+        String traceId = parent != null ? parent.traceId() : randomHex(2);
+        context.put(SPAN_KEY, new Span(traceId, randomHex(1), parent != null ? parent.spanId() : null, System.nanoTime()));
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        Span span = context.get(SPAN_KEY);
+        if (span == null) {
+            return;
+        }
+        log.info("span {} stage={} operation={} trace={} id={} parent={} status={} {} us", context.getName(),
+                value(context, Stages.STAGE_KEY), value(context, Stages.OPERATION_KEY), span.traceId(), span.spanId(),
+                span.parentId(), context.getError() == null ? "success" : "error: " + context.getError().getMessage(),
+                (System.nanoTime() - span.startNanos()) / 1_000);
+    }
+
+    private static Span parentSpan(Observation.Context context) {
+        ObservationView parent = context.getParentObservation();
+        return parent != null ? parent.getContextView().get(SPAN_KEY) : null;
+    }
+
+    private static String value(Observation.Context context, String key) {
+        return context.getLowCardinalityKeyValue(key) != null ? context.getLowCardinalityKeyValue(key).getValue() : null;
+    }
+
+    private static String randomHex(int longs) {
+        StringBuilder hex = new StringBuilder(longs * 16);
+        for (int i = 0; i < longs; i++) {
+            hex.append(String.format("%016x", ThreadLocalRandom.current().nextLong()));
+        }
+        return hex.toString();
+    }
+}
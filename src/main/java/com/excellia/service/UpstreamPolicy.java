@@ -0,0 +1,71 @@
+package com.excellia.service;
+
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.core.env.Environment;
+
+// Resilience settings for one upstream: defaults under excellia.resilience, overridable per upstream host under
+// excellia.resilience.upstream.<host>, e.g. excellia.resilience.upstream.api.example.com.max-concurrent=20.
+record UpstreamPolicy(
+        // Bulkhead: calls in flight at once; calls beyond it are rejected without waiting
+        int maxConcurrent,
+        // Circuit breaker: opens when at least failureRatePercent of the last windowSize calls failed (and at least
+        // minimumCalls were made), rejects everything for openMillis, then lets halfOpenCalls trial calls through
+        int windowSize,
+        int minimumCalls,
+        int failureRatePercent,
+        long openMillis,
+        int halfOpenCalls,
+        // Retries of idempotent methods: attempts in total, full-jitter exponential backoff between them
+        int maxAttempts,
+        long backoffMillis,
+        long maxBackoffMillis,
+        Set<String> retryMethods,
+        // Retry budget: retries per budget window may not exceed budgetRatio of the calls, plus a small floor
+        double budgetRatio,
+        int budgetMinRetriesPerSecond) {
+
+    static final String PREFIX = "excellia.resilience.";
+
+    static UpstreamPolicy defaults(Environment env) {
+        return new UpstreamPolicy(
+            env.getProperty(PREFIX + "max-concurrent", Integer.class, 100),
+            env.getProperty(PREFIX + "circuit-breaker.window-size", Integer.class, 50),
+            env.getProperty(PREFIX + "circuit-breaker.minimum-calls", Integer.class, 20),
+            env.getProperty(PREFIX + "circuit-breaker.failure-rate-percent", Integer.class, 50),
+            env.getProperty(PREFIX + "circuit-breaker.open-ms", Long.class, 30_000L),
+            env.getProperty(PREFIX + "circuit-breaker.half-open-calls", Integer.class, 3),
+            env.getProperty(PREFIX + "retry.max-attempts", Integer.class, 3),
+            env.getProperty(PREFIX + "retry.backoff-ms", Long.class, 50L),
+            env.getProperty(PREFIX + "retry.max-backoff-ms", Long.class, 1_000L),
+            methods(env.getProperty(PREFIX + "retry.methods", "GET,HEAD,OPTIONS,PUT,DELETE")),
+            env.getProperty(PREFIX + "retry.budget-ratio", Double.class, 0.2),
+            env.getProperty(PREFIX + "retry.budget-min-per-second", Integer.class, 5));
+    }
+
+    UpstreamPolicy forHost(Environment env, String host) {
+        String prefix = PREFIX + "upstream." + host + ".";
+        return new UpstreamPolicy(
+            env.getProperty(prefix + "max-concurrent", Integer.class, maxConcurrent),
+            env.getProperty(prefix + "circuit-breaker.window-size", Integer.class, windowSize),
+            env.getProperty(prefix + "circuit-breaker.minimum-calls", Integer.class, minimumCalls),
+            env.getProperty(prefix + "circuit-breaker.failure-rate-percent", Integer.class, failureRatePercent),
+            env.getProperty(prefix + "circuit-breaker.open-ms", Long.class, openMillis),
+            env.getProperty(prefix + "circuit-breaker.half-open-calls", Integer.class, halfOpenCalls),
+            env.getProperty(prefix + "retry.max-attempts", Integer.class, maxAttempts),
+            env.getProperty(prefix + "retry.backoff-ms", Long.class, backoffMillis),
+            env.getProperty(prefix + "retry.max-backoff-ms", Long.class, maxBackoffMillis),
+            env.containsProperty(prefix + "retry.methods") ? methods(env.getProperty(prefix + "retry.methods")) : retryMethods,
+            env.getProperty(prefix + "retry.budget-ratio", Double.class, budgetRatio),
+            env.getProperty(prefix + "retry.budget-min-per-second", Integer.class, budgetMinRetriesPerSecond));
+    }
+
+    boolean retries(String httpMethod) {
+        return maxAttempts > 1 && retryMethods.contains(httpMethod.toUpperCase(Locale.ROOT));
+    }
+
+    private static Set<String> methods(String list) {
+        return Set.of(list.toUpperCase(Locale.ROOT).split("\\s*,\\s*"));
+    }
+}
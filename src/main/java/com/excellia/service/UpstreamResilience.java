@@ -0,0 +1,162 @@
+package com.excellia.service;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import io.micrometer.observation.Observation;
+
+// Circuit breaker, bulkhead and budgeted retries around every upstream call, one set per upstream (the server
+// URL of the generated spec). Calls the upstream cannot take right now are rejected up front with an
+// UpstreamUnavailableException instead of holding a request thread until the read timeout.
+@Service
+public class UpstreamResilience {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamResilience.class);
+
+    private final Environment environment;
+    private final boolean enabled;
+    private final UpstreamPolicy defaults;
+    private final Map<String, Guard> guards = new ConcurrentHashMap<>();
+
+    public UpstreamResilience(Environment environment) {
+        this.environment = environment;
+        this.enabled = environment.getProperty(UpstreamPolicy.PREFIX + "enabled", Boolean.class, true);
+        this.defaults = UpstreamPolicy.defaults(environment);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Runs one upstream call. Only idempotent methods are retried, and only when `retryable` allows it (a streamed
+    // response may already be half written to the client)
+    Object call(String upstream, String httpMethod, boolean retryable, Observation.CheckedCallable<Object, Exception> attempt)
+            throws Exception {
+        if (!enabled) {
+            return attempt.call();
+        }
+        Guard guard = guards.computeIfAbsent(upstream, this::guard);
+        boolean retries = retryable && guard.policy.retries(httpMethod);
+        guard.budget.onCall();
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            if (!guard.breaker.tryAcquire()) {
+                throw new UpstreamUnavailableException("Circuit breaker is open for upstream " + upstream,
+                        upstream, guard.breaker.retryAfterMillis());
+            }
+            if (!guard.bulkhead.tryAcquire()) {
+                guard.breaker.onSkipped();
+                throw new UpstreamUnavailableException("Too many concurrent calls to upstream " + upstream
+                        + " (max " + guard.policy.maxConcurrent() + ")", upstream, 0);
+            }
+            try {
+                Object result = attempt.call();
+                if (guard.breaker.onSuccess()) {
+                    log.info("Circuit breaker closed for upstream {}", upstream);
+                }
+                return result;
+            } catch (Exception e) {
+                if (!isFailure(e)) {
+                    guard.breaker.onSuccess();
+                } else if (guard.breaker.onFailure()) {
+                    log.warn("Circuit breaker opened for upstream {} ({}% of recent calls failed)", upstream,
+                            guard.breaker.failureRatePercent());
+                }
+                if (!retries || attemptNumber >= guard.policy.maxAttempts() || !isRetryable(e)
+                        || !guard.budget.tryRetry()) {
+                    throw e;
+                }
+                log.debug("Retrying {} {} after attempt {} failed: {}", httpMethod, upstream, attemptNumber, e.getMessage());
+            } finally {
+                guard.bulkhead.release();
+            }
+            if (!backoff(guard.policy, attemptNumber)) {
+                throw new UpstreamUnavailableException("Interrupted while retrying upstream " + upstream, upstream, 0);
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new TreeMap<>();
+        guards.forEach((upstream, guard) -> {
+            Map<String, Object> upstreamStats = new LinkedHashMap<>();
+            upstreamStats.put("circuit", guard.breaker.getState());
+            upstreamStats.put("failureRatePercent", guard.breaker.failureRatePercent());
+            upstreamStats.put("inFlight", guard.policy.maxConcurrent() - guard.bulkhead.availablePermits());
+            upstreamStats.put("maxConcurrent", guard.policy.maxConcurrent());
+            upstreamStats.put("recentRetries", guard.budget.getRetries());
+            stats.put(upstream, Collections.unmodifiableMap(upstreamStats));
+        });
+        return Collections.unmodifiableMap(stats);
+    }
+
+    // Connection failures, timeouts and 5xx count against the breaker; any other answer means the upstream is up
+    static boolean isFailure(Throwable e) {
+        if (e instanceof ResourceAccessException) {
+            return true;
+        }
+        return e instanceof RestClientResponseException response && response.getStatusCode().is5xxServerError();
+    }
+
+    static boolean isRetryable(Throwable e) {
+        if (e instanceof ResourceAccessException) {
+            return true;
+        }
+        if (e instanceof RestClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status == HttpStatus.TOO_MANY_REQUESTS.value() || status == HttpStatus.BAD_GATEWAY.value()
+                    || status == HttpStatus.SERVICE_UNAVAILABLE.value() || status == HttpStatus.GATEWAY_TIMEOUT.value();
+        }
+        return false;
+    }
+
+    // Full jitter: a random delay up to the exponential backoff, so retries from many callers do not line up
+    private static boolean backoff(UpstreamPolicy policy, int attemptNumber) {
+        long ceiling = Math.min(policy.maxBackoffMillis(), policy.backoffMillis() << Math.min(attemptNumber - 1, 20));
+        if (ceiling <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Guard guard(String upstream) {
+        UpstreamPolicy policy = defaults;
+        String host = host(upstream);
+        if (host != null) {
+            policy = defaults.forHost(environment, host);
+        }
+        log.debug("Resilience policy for upstream {}: {}", upstream, policy);
+        return new Guard(policy, new CircuitBreaker(policy), new Semaphore(Math.max(1, policy.maxConcurrent())),
+                new RetryBudget(policy));
+    }
+
+    private static String host(String upstream) {
+        try {
+            return URI.create(upstream).getHost();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private record Guard(UpstreamPolicy policy, CircuitBreaker breaker, Semaphore bulkhead, RetryBudget budget) {
+    }
+}
@@ -0,0 +1,188 @@
+package com.excellia.service;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+// Opt-in cache of deserialized GET responses, keyed by spec, operation, query params and the headers that can change
+// the answer. Fresh entries are served without an upstream call, expired ones are revalidated with their ETag or
+// Last-Modified, and concurrent misses for the same key share a single upstream call.
+@Service
+public class UpstreamResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamResponseCache.class);
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Set<String> keyHeaders;
+
+    // key -> entry, in access order; expired entries stay while they can still be revalidated
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong collapsed = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UpstreamResponseCache(
+            @Value("${excellia.response-cache.enabled:false}") boolean enabled,
+            @Value("${excellia.response-cache.max-entries:1000}") int maxEntries,
+            @Value("${excellia.response-cache.ttl-seconds:30}") long ttlSeconds,
+            @Value("${excellia.response-cache.key-headers:Authorization,Accept,Accept-Language,Cookie,X-Api-Key}")
+                    Set<String> keyHeaders) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.keyHeaders = keyHeaders.stream()
+            .map(name -> name.trim().toLowerCase(Locale.ROOT))
+            .filter(name -> !name.isEmpty())
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    Key key(String specHash, String operationId, Map<String, String> queryParams, Map<String, String> headers) {
+        Map<String, String> params = queryParams == null ? Map.of() : new TreeMap<>(queryParams);
+        Map<String, String> relevantHeaders = new TreeMap<>();
+        if (headers != null) {
+            headers.forEach((name, value) -> {
+                String normalized = name.toLowerCase(Locale.ROOT);
+                if (keyHeaders.contains(normalized)) {
+                    relevantHeaders.put(normalized, value);
+                }
+            });
+        }
+        return new Key(specHash, operationId, params, relevantHeaders);
+    }
+
+    // Calls upstream through `call` only when there is no fresh entry, passing it the validators of an expired one
+    Object get(Key key, Function<ConditionalRequestInterceptor.Exchange, Object> call) {
+        Entry entry = lookup(key);
+        if (entry != null && entry.isFresh()) {
+            hits.incrementAndGet();
+            return entry.value;
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            collapsed.incrementAndGet();
+            return join(running);
+        }
+        try {
+            // Another caller may have stored the entry between the lookup and claiming the key
+            entry = lookup(key);
+            Object value = entry != null && entry.isFresh() ? entry.value : load(key, entry, call);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", size());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("revalidations", revalidations.get());
+        stats.put("collapsed", collapsed.get());
+        stats.put("evictions", evictions.get());
+        return Collections.unmodifiableMap(stats);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private Object load(Key key, Entry stale, Function<ConditionalRequestInterceptor.Exchange, Object> call) {
+        ConditionalRequestInterceptor.Exchange exchange = stale == null
+            ? new ConditionalRequestInterceptor.Exchange(null, null)
+            : new ConditionalRequestInterceptor.Exchange(stale.etag, stale.lastModified);
+        Object value = call.apply(exchange);
+
+        if (stale != null && exchange.isNotModified()) {
+            revalidations.incrementAndGet();
+            store(key, new Entry(stale.value, expiry(), stale.etag, stale.lastModified));
+            log.debug("Revalidated cached response for {}", key.operationId());
+            return stale.value;
+        }
+        misses.incrementAndGet();
+        if (exchange.isStorable()) {
+            store(key, new Entry(value, expiry(), exchange.getEtag(), exchange.getLastModified()));
+        }
+        return value;
+    }
+
+    private long expiry() {
+        return System.currentTimeMillis() + ttlMillis;
+    }
+
+    private synchronized Entry lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.isFresh() && !entry.canRevalidate()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized void store(Key key, Entry entry) {
+        entries.put(key, entry);
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    record Key(String specHash, String operationId, Map<String, String> params, Map<String, String> headers) {
+    }
+
+    private record Entry(Object value, long expiresAt, String etag, String lastModified) {
+
+        boolean isFresh() {
+            return System.currentTimeMillis() < expiresAt;
+        }
+
+        boolean canRevalidate() {
+            return etag != null || lastModified != null;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.excellia.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+// Where a streamed upstream response goes: receives the status and headers, then hands back the stream for the body.
+@FunctionalInterface
+public interface UpstreamResponseSink {
+
+    OutputStream open(HttpStatusCode status, HttpHeaders headers) throws IOException;
+}
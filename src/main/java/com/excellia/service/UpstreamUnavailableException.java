@@ -0,0 +1,22 @@
+package com.excellia.service;
+
+// A call rejected before it reached the upstream: its circuit breaker is open or its bulkhead is full
+public class UpstreamUnavailableException extends RuntimeException {
+
+    private final String upstream;
+    private final long retryAfterMillis;
+
+    public UpstreamUnavailableException(String message, String upstream, long retryAfterMillis) {
+        super(message);
+        this.upstream = upstream;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public String getUpstream() {
+        return upstream;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,133 @@
+package com.excellia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import com.excellia.dto.ApiConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.observation.ObservationRegistry;
+
+class DynamicApiCallerServiceConcurrencyTests {
+
+    private static final int THREADS = 32;
+    private static final int CALLS_PER_THREAD = 100;
+
+    @TempDir
+    Path workDir;
+
+    private HttpServer server;
+    private DynamicApiCallerService callerService;
+    private final ConcurrentLinkedQueue<String> upstreamErrors = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/echo", this::echo);
+        server.setExecutor(Executors.newFixedThreadPool(THREADS));
+        server.start();
+
+        GeneratedClientCache cache = new GeneratedClientCache(workDir.toString(), 10, 512);
+        OpenApiGeneratorService generatorService = new OpenApiGeneratorService(new OpenApiSpecBuilder(), cache);
+        OpenApiCodeGenLibraryService codeGenService = new OpenApiCodeGenLibraryService(cache, "lean", List.of());
+        GeneratedClientRegistry registry = new GeneratedClientRegistry(cache, new GeneratedClientCompiler(cache),
+                new ObjectMapper(), new JdkClientHttpRequestFactory(), new JsonBodies(true, 64), 10);
+        callerService = new DynamicApiCallerService(registry, new UpstreamResponseCache(false, 0, 0, Set.of()),
+                ObservationRegistry.NOOP, new RequestLog(0, Set.of()), new UpstreamResilience(new StandardEnvironment()),
+                new RateLimiter(new StandardEnvironment()));
+
+        ApiConfig config = new ApiConfig();
+        config.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/echo");
+        config.setOperationId("echo");
+        config.setMethods(List.of("get"));
+        config.setQueryParams(Map.of("caller", ""));
+        String specHash = generatorService.generateFromConfig(config);
+        codeGenService.generateCode(specHash);
+        callerService.registerSpec(specHash);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void headersNeverCrossBetweenConcurrentRequests() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                List<String> mismatches = new ArrayList<>();
+                for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                    String caller = "caller-" + thread + "-" + i;
+                    ApiConfig request = new ApiConfig();
+                    request.setOperationId("echo_GET");
+                    request.setMethod("get");
+                    request.setQueryParams(Map.of("caller", caller));
+                    // Only even calls send the header, so a leaked header would also show up on odd calls
+                    request.setHeaders(i % 2 == 0 ? Map.of("X-Caller", caller) : null);
+
+                    Map<?, ?> response = (Map<?, ?>) callerService.callApi(request);
+                    Object expected = i % 2 == 0 ? caller : "";
+                    if (!expected.equals(response.get("header"))) {
+                        mismatches.add(caller + " got " + response.get("header"));
+                    }
+                }
+                return mismatches;
+            }));
+        }
+        start.countDown();
+
+        List<String> mismatches = new ArrayList<>();
+        for (Future<List<String>> future : futures) {
+            mismatches.addAll(future.get(2, TimeUnit.MINUTES));
+        }
+        executor.shutdown();
+
+        assertThat(upstreamErrors).isEmpty();
+        assertThat(mismatches).isEmpty();
+    }
+
+    // Echoes the X-Caller header back; more than one value means headers accumulated on the client
+    private void echo(HttpExchange exchange) throws IOException {
+        List<String> values = exchange.getRequestHeaders().get("X-Caller");
+        if (values != null && values.size() > 1) {
+            upstreamErrors.add("Multiple X-Caller values: " + values);
+        }
+        String header = values == null ? "" : values.get(0);
+        byte[] body = ("{\"header\":\"" + header + "\"}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
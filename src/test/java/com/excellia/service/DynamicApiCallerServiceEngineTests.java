@@ -0,0 +1,163 @@
+package com.excellia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import com.excellia.dto.ApiConfig;
+import com.excellia.dto.PathConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.observation.ObservationRegistry;
+
+// The interpreted engine must send what the generated client sends, for the same /execute request.
+class DynamicApiCallerServiceEngineTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path workDir;
+
+    private HttpServer server;
+    private OpenApiGeneratorService generatorService;
+    private OpenApiCodeGenLibraryService codeGenService;
+    private GeneratedClientRegistry registry;
+    private DynamicApiCallerService callerService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::echo);
+        server.start();
+
+        GeneratedClientCache cache = new GeneratedClientCache(workDir.toString(), 10, 512);
+        generatorService = new OpenApiGeneratorService(new OpenApiSpecBuilder(), cache);
+        codeGenService = new OpenApiCodeGenLibraryService(cache, "lean", List.of());
+        registry = new GeneratedClientRegistry(cache, new GeneratedClientCompiler(cache), objectMapper,
+                new JdkClientHttpRequestFactory(), new JsonBodies(true, 64), 10);
+        callerService = new DynamicApiCallerService(registry, new UpstreamResponseCache(false, 0, 0, Set.of()),
+                ObservationRegistry.NOOP, new RequestLog(0, Set.of()), new UpstreamResilience(new StandardEnvironment()),
+                new RateLimiter(new StandardEnvironment()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void interpretedRequestsMatchGeneratedOnes() throws Exception {
+        String specHash = generatorService.generateFromConfig(config());
+        codeGenService.generateCode(specHash);
+        callerService.registerSpec(specHash);
+
+        for (ApiConfig request : List.of(request("items_GET", "get"), request("items_POST", "post"))) {
+            request.setEngine("generated");
+            Object generated = callerService.callApi(request);
+            request.setEngine("interpreted");
+            Object interpreted = callerService.callApi(request);
+
+            assertThat(interpreted).isEqualTo(generated);
+        }
+        Map<?, ?> response = (Map<?, ?>) callerService.callApi(request("items_POST", "post"));
+        assertThat(response.get("path")).isEqualTo("/api/items/a%20b");
+        assertThat(response.get("query")).isEqualTo("limit=5");
+        assertThat(response.get("body")).isEqualTo(Map.of("name", "widget", "count", 2));
+    }
+
+    @Test
+    void interpretedSpecIsCalledWithoutGeneratedCode() throws Exception {
+        String specHash = generatorService.generateFromConfig(config());
+        callerService.registerSpec(specHash, ExecutionEngine.INTERPRETED);
+
+        Map<?, ?> response = (Map<?, ?>) callerService.callApi(request("items_GET", "get"));
+
+        assertThat(response.get("method")).isEqualTo("GET");
+        assertThat(response.get("path")).isEqualTo("/api/items/a%20b");
+        assertThat(registry.resolve("items_GET").isGenerated()).isFalse();
+        ApiConfig generated = request("items_GET", "get");
+        generated.setEngine("generated");
+        RuntimeException failure = null;
+        try {
+            callerService.callApi(generated);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        assertThat(failure).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void generatingCodeUpgradesAnInterpretedSpec() throws Exception {
+        String specHash = generatorService.generateFromConfig(config());
+        callerService.registerSpec(specHash, ExecutionEngine.INTERPRETED);
+        codeGenService.generateCode(specHash);
+        callerService.registerSpec(specHash);
+
+        assertThat(registry.resolve("items_GET").isGenerated()).isTrue();
+        assertThat(((Map<?, ?>) callerService.callApi(request("items_GET", "get"))).get("method")).isEqualTo("GET");
+    }
+
+    private ApiConfig config() {
+        PathConfig path = new PathConfig();
+        path.setPath("/items/{id}");
+        path.setOperationId("items");
+        path.setMethods(List.of("get", "post"));
+        path.setQueryParams(Map.of("limit", "10"));
+        path.setBodies(Map.of("post", body()));
+        ApiConfig config = new ApiConfig();
+        config.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/api");
+        config.setPaths(List.of(path));
+        return config;
+    }
+
+    private static ApiConfig request(String operationId, String method) {
+        ApiConfig request = new ApiConfig();
+        request.setOperationId(operationId);
+        request.setMethod(method);
+        request.setQueryParams(Map.of("id", "a b", "limit", "5"));
+        request.setBodies(Map.of("post", body()));
+        return request;
+    }
+
+    private static Map<String, Object> body() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("name", "widget");
+        body.put("count", 2);
+        return body;
+    }
+
+    // Describes the request as received: method, raw path and query, content headers and the parsed body
+    private void echo(HttpExchange exchange) throws IOException {
+        byte[] requestBody = exchange.getRequestBody().readAllBytes();
+        Map<String, Object> echo = new LinkedHashMap<>();
+        echo.put("method", exchange.getRequestMethod());
+        echo.put("path", exchange.getRequestURI().getRawPath());
+        echo.put("query", exchange.getRequestURI().getRawQuery());
+        echo.put("contentType", exchange.getRequestHeaders().getFirst("Content-Type"));
+        echo.put("accept", exchange.getRequestHeaders().getFirst("Accept"));
+        echo.put("body", requestBody.length == 0 ? null : objectMapper.readValue(requestBody, Object.class));
+        byte[] response = objectMapper.writeValueAsBytes(echo);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.excellia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import com.excellia.config.PerHostLimitingRequestFactory;
+import com.excellia.dto.ApiConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.observation.ObservationRegistry;
+
+// Compares /execute-style blocking calls on a Tomcat-sized platform pool against one virtual thread per call.
+class DynamicApiCallerServiceLoadTests {
+
+    private static final int IN_FLIGHT_CALLS = 1_200;
+    // Tomcat's default server.tomcat.threads.max
+    private static final int PLATFORM_THREADS = 200;
+    private static final long UPSTREAM_LATENCY_MS = 1_000;
+
+    @TempDir
+    Path workDir;
+
+    private HttpServer server;
+    private HttpClient httpClient;
+    private final AtomicInteger upstreamInFlight = new AtomicInteger();
+    private final AtomicInteger upstreamPeak = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), IN_FLIGHT_CALLS * 2);
+        server.createContext("/slow", this::slow);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        httpClient.close();
+    }
+
+    @Test
+    void virtualThreadsOutperformPlatformPoolWithManyCallsInFlight() throws Exception {
+        DynamicApiCallerService callerService = callerService(IN_FLIGHT_CALLS);
+        // Warm up the generated client and the connection pool before timing either mode
+        run(callerService, Executors.newFixedThreadPool(PLATFORM_THREADS), PLATFORM_THREADS);
+
+        double platformThroughput = run(callerService, Executors.newFixedThreadPool(PLATFORM_THREADS), IN_FLIGHT_CALLS);
+        int platformPeak = upstreamPeak.get();
+        double virtualThroughput = run(callerService, Executors.newVirtualThreadPerTaskExecutor(), IN_FLIGHT_CALLS);
+        int virtualPeak = upstreamPeak.get();
+        System.out.printf("%d calls, %d ms upstream latency: platform(%d) %.0f calls/s, peak %d in flight;"
+                + " virtual %.0f calls/s, peak %d in flight%n", IN_FLIGHT_CALLS, UPSTREAM_LATENCY_MS, PLATFORM_THREADS,
+                platformThroughput, platformPeak, virtualThroughput, virtualPeak);
+
+        // The platform pool can only ever have PLATFORM_THREADS calls waiting on the upstream at once
+        assertThat(platformPeak).isLessThanOrEqualTo(PLATFORM_THREADS);
+        assertThat(virtualPeak).isGreaterThan(PLATFORM_THREADS);
+        assertThat(virtualThroughput).isGreaterThan(platformThroughput);
+    }
+
+    @Test
+    void perHostLimitBoundsUpstreamConcurrencyOnVirtualThreads() throws Exception {
+        int limit = 64;
+        DynamicApiCallerService callerService = callerService(limit);
+
+        run(callerService, Executors.newVirtualThreadPerTaskExecutor(), IN_FLIGHT_CALLS);
+
+        assertThat(upstreamPeak.get()).isLessThanOrEqualTo(limit);
+    }
+
+    private DynamicApiCallerService callerService(int maxPerHost) throws IOException {
+        GeneratedClientCache cache = new GeneratedClientCache(workDir.toString(), 10, 512);
+        OpenApiGeneratorService generatorService = new OpenApiGeneratorService(new OpenApiSpecBuilder(), cache);
+        OpenApiCodeGenLibraryService codeGenService = new OpenApiCodeGenLibraryService(cache, "lean", List.of());
+        PerHostLimitingRequestFactory requestFactory = new PerHostLimitingRequestFactory(
+                new JdkClientHttpRequestFactory(httpClient), maxPerHost, TimeUnit.MINUTES.toMillis(1));
+        GeneratedClientRegistry registry = new GeneratedClientRegistry(cache, new GeneratedClientCompiler(cache),
+                new ObjectMapper(), requestFactory, new JsonBodies(true, 64), 10);
+        DynamicApiCallerService callerService = new DynamicApiCallerService(registry, new UpstreamResponseCache(false, 0, 0, Set.of()),
+                ObservationRegistry.NOOP, new RequestLog(0, Set.of()), new UpstreamResilience(withoutResilience()),
+                new RateLimiter(new StandardEnvironment()));
+
+        ApiConfig config = new ApiConfig();
+        config.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/slow");
+        config.setOperationId("slow");
+        config.setMethods(List.of("get"));
+        String specHash = generatorService.generateFromConfig(config);
+        codeGenService.generateCode(specHash);
+        callerService.registerSpec(specHash);
+        return callerService;
+    }
+
+    // The bulkhead would reject most of the calls this test puts in flight at once
+    private static StandardEnvironment withoutResilience() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(
+                new MapPropertySource("test", Map.of("excellia.resilience.enabled", "false")));
+        return environment;
+    }
+
+    // Starts all calls at once and returns completed calls per second
+    private double run(DynamicApiCallerService callerService, ExecutorService executor, int calls) throws Exception {
+        upstreamPeak.set(0);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>(calls);
+        for (int i = 0; i < calls; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ApiConfig request = new ApiConfig();
+                request.setOperationId("slow_GET");
+                request.setMethod("get");
+                return callerService.callApi(request);
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<Object> future : futures) {
+            assertThat(future.get(2, TimeUnit.MINUTES)).isNotNull();
+        }
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        return calls / (elapsed / 1_000_000_000.0);
+    }
+
+    private void slow(HttpExchange exchange) throws IOException {
+        int inFlight = upstreamInFlight.incrementAndGet();
+        upstreamPeak.accumulateAndGet(inFlight, Math::max);
+        try {
+            Thread.sleep(UPSTREAM_LATENCY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            upstreamInFlight.decrementAndGet();
+        }
+        byte[] body = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.excellia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.util.FileSystemUtils;
+
+import com.excellia.dto.ApiConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.observation.ObservationRegistry;
+
+// A restart is simulated by building a new cache, compiler and registry over the same directory.
+class GeneratedClientRegistryRestartTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path workDir;
+
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::respond);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void generatedClientIsServedFromStoredClassesAfterRestart() throws Exception {
+        GeneratedClientCache cache = cache();
+        String specHash = new OpenApiGeneratorService(new OpenApiSpecBuilder(), cache).generateFromConfig(config("/a"));
+        new OpenApiCodeGenLibraryService(cache, "lean", List.of()).generateCode(specHash);
+        GeneratedClientRegistry registry = registry(cache);
+        registry.register(specHash);
+        assertThat(callerService(registry).callApi(request())).isEqualTo(Map.of("path", "/a/"));
+        assertThat(Files.exists(cache.classesFile(specHash))).isTrue();
+
+        // Without sources the client could not be compiled again
+        FileSystemUtils.deleteRecursively(cache.clientDir(specHash));
+        GeneratedClientRegistry restarted = registry(cache());
+
+        assertThat(restarted.loadedClients()).isEqualTo(0);
+        assertThat(restarted.resolve("items_GET").isGenerated()).isTrue();
+        assertThat(callerService(restarted).callApi(request())).isEqualTo(Map.of("path", "/a/"));
+    }
+
+    @Test
+    void interpretedSpecSurvivesRestart() throws Exception {
+        GeneratedClientCache cache = cache();
+        String specHash = new OpenApiGeneratorService(new OpenApiSpecBuilder(), cache).generateFromConfig(config("/a"));
+        registry(cache).registerInterpreted(specHash);
+
+        GeneratedClientRegistry restarted = registry(cache());
+
+        assertThat(restarted.resolve("items_GET").isGenerated()).isFalse();
+        assertThat(callerService(restarted).callApi(request())).isEqualTo(Map.of("path", "/a/"));
+    }
+
+    @Test
+    void replacedSpecIsDroppedFromIndex() throws Exception {
+        GeneratedClientCache cache = cache();
+        OpenApiGeneratorService generatorService = new OpenApiGeneratorService(new OpenApiSpecBuilder(), cache);
+        String first = generatorService.generateFromConfig(config("/a"));
+        String second = generatorService.generateFromConfig(config("/b"));
+        GeneratedClientRegistry registry = registry(cache);
+        registry.registerInterpreted(first);
+        registry.registerInterpreted(second);
+
+        Map<?, ?> index = objectMapper.readValue(cache.indexFile().toFile(), Map.class);
+        GeneratedClientRegistry restarted = registry(cache());
+
+        assertThat(index.keySet()).isEqualTo(Set.of(second));
+        assertThat(callerService(restarted).callApi(request())).isEqualTo(Map.of("path", "/b/"));
+    }
+
+    @Test
+    void registrationWithoutArtifactsIsDropped() throws Exception {
+        GeneratedClientCache cache = cache();
+        String specHash = new OpenApiGeneratorService(new OpenApiSpecBuilder(), cache).generateFromConfig(config("/a"));
+        registry(cache).registerInterpreted(specHash);
+        FileSystemUtils.deleteRecursively(cache.artifactDir(specHash));
+
+        GeneratedClientRegistry restarted = registry(cache());
+
+        RuntimeException failure = null;
+        try {
+            restarted.resolve("items_GET");
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        assertThat(failure).isInstanceOf(IllegalStateException.class);
+    }
+
+    private GeneratedClientCache cache() {
+        return new GeneratedClientCache(workDir.toString(), 10, 512);
+    }
+
+    private GeneratedClientRegistry registry(GeneratedClientCache cache) {
+        return new GeneratedClientRegistry(cache, new GeneratedClientCompiler(cache), objectMapper,
+                new JdkClientHttpRequestFactory(), new JsonBodies(true, 64), 10);
+    }
+
+    private static DynamicApiCallerService callerService(GeneratedClientRegistry registry) {
+        return new DynamicApiCallerService(registry, new UpstreamResponseCache(false, 0, 0, Set.of()),
+                ObservationRegistry.NOOP, new RequestLog(0, Set.of()), new UpstreamResilience(new StandardEnvironment()),
+                new RateLimiter(new StandardEnvironment()));
+    }
+
+    private ApiConfig config(String basePath) {
+        ApiConfig config = new ApiConfig();
+        config.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + basePath);
+        config.setOperationId("items");
+        config.setMethods(List.of("get"));
+        return config;
+    }
+
+    private static ApiConfig request() {
+        ApiConfig request = new ApiConfig();
+        request.setOperationId("items_GET");
+        request.setMethod("get");
+        return request;
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        byte[] body = objectMapper.writeValueAsString(Map.of("path", exchange.getRequestURI().getPath()))
+            .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.excellia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import com.excellia.dto.ApiConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.observation.ObservationRegistry;
+
+// Bodies posted to an operation whose sample body became a generated model, with and without model binding.
+class JsonBodiesTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path workDir;
+
+    private HttpServer server;
+    private GeneratedClientCache cache;
+    private String specHash;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::echo);
+        server.start();
+
+        cache = new GeneratedClientCache(workDir.toString(), 10, 512);
+        ApiConfig config = new ApiConfig();
+        config.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/api");
+        config.setOperationId("items");
+        config.setMethods(List.of("post"));
+        config.setBodies(Map.of("post", body()));
+        specHash = new OpenApiGeneratorService(new OpenApiSpecBuilder(), cache).generateFromConfig(config);
+        new OpenApiCodeGenLibraryService(cache, "lean", List.of()).generateCode(specHash);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void boundAndRawBodiesAreSentAlike() {
+        for (String engine : List.of("generated", "interpreted")) {
+            Map<?, ?> bound = call(new JsonBodies(true, 4), request(body(), engine));
+            Map<?, ?> raw = call(new JsonBodies(false, 4), request(body(), engine));
+
+            assertThat(raw.get("body")).isEqualTo(bound.get("body"));
+            assertThat(raw.get("body")).isEqualTo(body());
+            assertThat(raw.get("contentLength")).isEqualTo(bound.get("contentLength"));
+            assertThat(raw.get("contentType")).isEqualTo("application/json");
+        }
+    }
+
+    @Test
+    void onlyModelBindingDropsUndeclaredFields() {
+        Map<String, Object> body = body();
+        body.put("extra", "kept");
+
+        Map<?, ?> bound = call(new JsonBodies(true, 4), request(body, "generated"));
+        Map<?, ?> raw = call(new JsonBodies(false, 4), request(body, "generated"));
+
+        assertThat(((Map<?, ?>) bound.get("body")).containsKey("extra")).isFalse();
+        assertThat(raw.get("body")).isEqualTo(body);
+    }
+
+    @Test
+    void buffersAreReturnedToTheSharedPool() {
+        JsonBodies bodies = new JsonBodies(true, 4);
+        call(bodies, request(body(), "generated"));
+
+        assertThat(bodies.pooledBuffers()).isGreaterThan(0);
+        assertThat(bodies.pooledBuffers()).isLessThan(5);
+    }
+
+    private Map<?, ?> call(JsonBodies bodies, ApiConfig request) {
+        GeneratedClientRegistry registry = new GeneratedClientRegistry(cache, new GeneratedClientCompiler(cache),
+                objectMapper, new JdkClientHttpRequestFactory(), bodies, 10);
+        registry.register(specHash);
+        DynamicApiCallerService callerService = new DynamicApiCallerService(registry,
+                new UpstreamResponseCache(false, 0, 0, Set.of()), ObservationRegistry.NOOP, new RequestLog(0, Set.of()),
+                new UpstreamResilience(new StandardEnvironment()),
+                new RateLimiter(new StandardEnvironment()));
+        return (Map<?, ?>) callerService.callApi(request);
+    }
+
+    private static ApiConfig request(Map<String, Object> body, String engine) {
+        ApiConfig request = new ApiConfig();
+        request.setOperationId("items_POST");
+        request.setMethod("post");
+        request.setEngine(engine);
+        request.setBodies(Map.of("post", body));
+        return request;
+    }
+
+    private static Map<String, Object> body() {
+        Map<String, Object> owner = new LinkedHashMap<>();
+        owner.put("id", 7);
+        owner.put("email", "owner@example.com");
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("name", "widget");
+        body.put("count", 2);
+        body.put("tags", List.of("a", "b"));
+        body.put("owner", owner);
+        return body;
+    }
+
+    private void echo(HttpExchange exchange) throws IOException {
+        byte[] requestBody = exchange.getRequestBody().readAllBytes();
+        Map<String, Object> echo = new LinkedHashMap<>();
+        echo.put("contentType", exchange.getRequestHeaders().getFirst("Content-Type"));
+        echo.put("contentLength", requestBody.length);
+        echo.put("body", requestBody.length == 0 ? null : objectMapper.readValue(requestBody, Object.class));
+        byte[] response = objectMapper.writeValueAsBytes(echo);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.excellia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+class RateLimiterTests {
+
+    private static final String UPSTREAM = "http://api.example.com/v1";
+
+    @Test
+    void burstIsAllowedThenCallsAreRejectedWithRetryAfter() {
+        RateLimiter limiter = limiter(Map.of(
+                "excellia.rate-limit.upstream.rate-per-second", "1",
+                "excellia.rate-limit.upstream.burst", "3"));
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquireUpstream(UPSTREAM);
+        }
+        RateLimitedException rejected = rejection(() -> limiter.acquireUpstream(UPSTREAM));
+
+        assertThat(rejected.getScope()).isEqualTo("upstream");
+        assertThat(rejected.getKey()).isEqualTo(UPSTREAM);
+        assertThat(rejected.getRetryAfterMillis()).isBetween(1L, 1_001L);
+        assertThat(stats(limiter, "upstreams", UPSTREAM)).containsEntry("allowed", 3L).containsEntry("rejected", 1L);
+    }
+
+    @Test
+    void queuePolicyWaitsForTheNextToken() {
+        RateLimiter limiter = limiter(Map.of(
+                "excellia.rate-limit.upstream.rate-per-second", "20",
+                "excellia.rate-limit.upstream.burst", "1",
+                "excellia.rate-limit.upstream.policy", "queue",
+                "excellia.rate-limit.upstream.max-wait-ms", "500"));
+
+        long start = System.nanoTime();
+        limiter.acquireUpstream(UPSTREAM);
+        limiter.acquireUpstream(UPSTREAM);
+        limiter.acquireUpstream(UPSTREAM);
+
+        // Two tokens at 20 per second
+        assertThat((System.nanoTime() - start) / 1_000_000).isGreaterThanOrEqualTo(90L);
+        assertThat(stats(limiter, "upstreams", UPSTREAM)).containsEntry("allowed", 1L).containsEntry("queued", 2L);
+    }
+
+    @Test
+    void callersHaveTheirOwnBucketsAndOverrides() {
+        RateLimiter limiter = limiter(Map.of(
+                "excellia.rate-limit.caller.rate-per-second", "1",
+                "excellia.rate-limit.caller.reporting.rate-per-second", "100",
+                "excellia.rate-limit.caller.reporting.burst", "10"));
+
+        limiter.acquireCaller("alice");
+        limiter.acquireCaller("bob");
+        rejection(() -> limiter.acquireCaller("alice"));
+        for (int i = 0; i < 10; i++) {
+            limiter.acquireCaller("reporting");
+        }
+        // Unlimited by default
+        limiter.acquireUpstream(UPSTREAM);
+        limiter.acquireUpstream(UPSTREAM);
+
+        assertThat(stats(limiter, "callers", "alice")).containsEntry("allowed", 1L).containsEntry("rejected", 1L);
+        assertThat(stats(limiter, "callers", "bob")).containsEntry("rejected", 0L);
+        assertThat(stats(limiter, "callers", "reporting")).containsEntry("allowed", 10L);
+        assertThat(stats(limiter, "upstreams", UPSTREAM)).containsEntry("allowed", 2L).doesNotContainKey("ratePerSecond");
+    }
+
+    @Test
+    void concurrentCallersNeverGetMoreThanTheBurst() throws Exception {
+        RateLimiter limiter = limiter(Map.of(
+                "excellia.rate-limit.upstream.rate-per-second", "0.01",
+                "excellia.rate-limit.upstream.burst", "50"));
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int call = 0; call < 100; call++) {
+                        try {
+                            limiter.acquireUpstream(UPSTREAM);
+                            allowed.incrementAndGet();
+                        } catch (RateLimitedException e) {
+                            // counted below
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(allowed.get()).isEqualTo(50);
+        assertThat(stats(limiter, "upstreams", UPSTREAM)).containsEntry("rejected", 750L);
+    }
+
+    @Test
+    void countersAreScrapedPerScopeAndKey() {
+        RateLimiter limiter = limiter(Map.of("excellia.rate-limit.caller.rate-per-second", "1"));
+        limiter.acquireCaller("alice");
+        rejection(() -> limiter.acquireCaller("alice"));
+
+        StringWriter out = new StringWriter();
+        limiter.scrape(out);
+
+        assertThat(out.toString())
+            .contains("excellia_rate_limit_calls_total{scope=\"caller\",key=\"alice\",outcome=\"allowed\"} 1\n")
+            .contains("excellia_rate_limit_calls_total{scope=\"caller\",key=\"alice\",outcome=\"rejected\"} 1\n")
+            .contains("excellia_rate_limit_tokens{scope=\"caller\",key=\"alice\"} ");
+    }
+
+    private static RateLimiter limiter(Map<String, Object> properties) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+        return new RateLimiter(environment);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> stats(RateLimiter limiter, String scope, String key) {
+        return (Map<String, Object>) ((Map<?, ?>) limiter.stats().get(scope)).get(key);
+    }
+
+    private static RateLimitedException rejection(Runnable call) {
+        try {
+            call.run();
+        } catch (RateLimitedException e) {
+            return e;
+        }
+        throw new AssertionError("Expected the call to be rate limited");
+    }
+}
@@ -0,0 +1,239 @@
+package com.excellia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import com.excellia.dto.ApiConfig;
+import com.excellia.dto.ResponseTransform;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.observation.ObservationRegistry;
+
+class ResponseTransformerTests {
+
+    private static final String ORDERS = """
+        {"total": 4, "data": [
+          {"id": 1, "status": "open", "amount": 10.5, "owner": {"name": "ann", "email": "ann@example.com"}, "tags": ["a", "b"]},
+          {"id": 2, "status": "closed", "amount": 99, "owner": {"name": "bob", "email": "bob@example.com"}, "tags": []},
+          {"id": 3, "status": "open", "amount": 42, "owner": {"name": "cid", "email": "cid@example.com"}, "tags": ["c"]},
+          {"id": 4, "status": "open", "amount": 7, "owner": null, "tags": ["d"]}
+        ]}""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @TempDir
+    Path workDir;
+
+    private HttpServer server;
+    private volatile String upstreamBody = ORDERS;
+    private volatile int upstreamStatus = 200;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::respond);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void itemsAreFilteredPagedAndProjected() throws IOException {
+        ResponseTransform transform = transform("/data", List.of("/id", "/owner/name"));
+        transform.setWhere(List.of(condition("/status", "eq", "open"), condition("/amount", "gte", 8)));
+        transform.setOffset(1);
+        transform.setLimit(5);
+
+        assertThat(apply(transform, ORDERS)).isEqualTo(List.of(Map.of("id", 3, "owner", Map.of("name", "cid"))));
+    }
+
+    @Test
+    void readingStopsOnceThePageIsFull() throws IOException {
+        ResponseTransform transform = transform("/data", List.of("/id"));
+        transform.setLimit(2);
+        // Malformed after the second item, which the transform never gets to
+        String truncated = ORDERS.substring(0, ORDERS.indexOf("{\"id\": 3")) + "{broken";
+
+        assertThat(apply(transform, truncated)).isEqualTo(List.of(Map.of("id", 1), Map.of("id", 2)));
+    }
+
+    @Test
+    void selectionKeepsStructureAndMatchesWildcards() throws IOException {
+        ResponseTransform transform = transform(null, List.of("/total", "/data/*/tags/0", "/data/1/owner"));
+
+        assertThat(apply(transform, ORDERS)).isEqualTo(Map.of("total", 4, "data", List.of(
+                Map.of("tags", List.of("a")),
+                Map.of("tags", List.of(), "owner", Map.of("name", "bob", "email", "bob@example.com")),
+                Map.of("tags", List.of("c")),
+                Map.of("tags", List.of("d")))));
+    }
+
+    @Test
+    void conditionsCompareByJsonType() throws IOException {
+        String items = "[{\"v\": 1}, {\"v\": 1.0}, {\"v\": \"1\"}, {\"v\": null}, {\"v\": {\"x\": 1}}, {}]";
+
+        assertThat(ids(items, condition("/v", "eq", 1))).isEqualTo(List.of(0, 1));
+        assertThat(ids(items, condition("/v", "in", List.of("1", 2)))).isEqualTo(List.of(2));
+        assertThat(ids(items, condition("/v", "ne", 1))).isEqualTo(List.of(2, 3, 4, 5));
+        assertThat(ids(items, condition("/v", "lt", 5))).isEqualTo(List.of(0, 1));
+        assertThat(ids(items, condition("/v", "exists", false))).isEqualTo(List.of(5));
+    }
+
+    @Test
+    void invalidTransformsAreRejectedUpFront() {
+        ResponseTransform wildcardItems = transform("/data/*", null);
+        ResponseTransform unknownOp = transform(null, null);
+        unknownOp.setWhere(List.of(condition("/id", "like", "x")));
+        ResponseTransform badPointer = transform(null, List.of("id"));
+
+        for (ResponseTransform transform : List.of(wildcardItems, unknownOp, badPointer)) {
+            RuntimeException failure = null;
+            try {
+                ResponseTransformer.of(transform);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            assertThat(failure).isInstanceOf(ResponseTransformException.class);
+        }
+    }
+
+    @Test
+    void executeReturnsOnlyTheTransformedResponse() throws IOException {
+        DynamicApiCallerService callerService = callerService();
+        ApiConfig request = request();
+        request.setTransform(transform("/data", List.of("/id")));
+        request.getTransform().setLimit(2);
+
+        Object response = callerService.callApi(request);
+
+        assertThat(objectMapper.readValue(objectMapper.writeValueAsBytes(response), Object.class))
+            .isEqualTo(List.of(Map.of("id", 1), Map.of("id", 2)));
+    }
+
+    @Test
+    void streamedResponseIsTransformedAndUpstreamErrorsPassThrough() throws IOException {
+        DynamicApiCallerService callerService = callerService();
+        ApiConfig request = request();
+        request.setTransform(transform("/data", List.of("/owner/email")));
+        request.getTransform().setLimit(1);
+        HttpHeaders streamedHeaders = new HttpHeaders();
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+
+        callerService.streamApi(request, (status, headers) -> {
+            streamedHeaders.putAll(headers);
+            return streamed;
+        });
+
+        assertThat(streamed.toString(StandardCharsets.UTF_8)).isEqualTo("[{\"owner\":{\"email\":\"ann@example.com\"}}]");
+        assertThat(streamedHeaders.getContentLength()).isEqualTo(-1L);
+
+        upstreamStatus = 404;
+        upstreamBody = "{\"error\": \"missing\"}";
+        RuntimeException failure = null;
+        try {
+            callerService.callApi(request);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        assertThat(failure).isNotNull();
+        assertThat(failure.getMessage()).contains("404");
+    }
+
+    private Object apply(ResponseTransform transform, String json) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonParser parser = jsonFactory.createParser(json); JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            ResponseTransformer.of(transform).transform(parser, generator);
+        }
+        return objectMapper.readValue(out.toString(), Object.class);
+    }
+
+    // Indexes of the items meeting the condition
+    private List<?> ids(String items, ResponseTransform.Condition condition) throws IOException {
+        StringBuilder indexed = new StringBuilder("[");
+        List<?> parsed = objectMapper.readValue(items, List.class);
+        for (int i = 0; i < parsed.size(); i++) {
+            String item = objectMapper.writeValueAsString(parsed.get(i));
+            indexed.append(i > 0 ? "," : "").append("{\"i\":").append(i).append(item.length() > 2 ? "," : "")
+                .append(item, 1, item.length());
+        }
+        ResponseTransform transform = transform(null, List.of("/i"));
+        transform.setWhere(List.of(condition));
+        return ((List<?>) apply(transform, indexed.append("]").toString())).stream()
+            .map(item -> ((Map<?, ?>) item).get("i"))
+            .toList();
+    }
+
+    private DynamicApiCallerService callerService() throws IOException {
+        GeneratedClientCache cache = new GeneratedClientCache(workDir.toString(), 10, 512);
+        ApiConfig config = new ApiConfig();
+        config.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/orders");
+        config.setOperationId("orders");
+        config.setMethods(List.of("get"));
+        String specHash = new OpenApiGeneratorService(new OpenApiSpecBuilder(), cache).generateFromConfig(config);
+        GeneratedClientRegistry registry = new GeneratedClientRegistry(cache, new GeneratedClientCompiler(cache),
+                objectMapper, new JdkClientHttpRequestFactory(), new JsonBodies(true, 4), 10);
+        registry.registerInterpreted(specHash);
+        return new DynamicApiCallerService(registry, new UpstreamResponseCache(false, 0, 0, Set.of()),
+                ObservationRegistry.NOOP, new RequestLog(0, Set.of()), new UpstreamResilience(new StandardEnvironment()),
+                new RateLimiter(new StandardEnvironment()));
+    }
+
+    private static ApiConfig request() {
+        ApiConfig request = new ApiConfig();
+        request.setOperationId("orders_GET");
+        request.setMethod("get");
+        return request;
+    }
+
+    private static ResponseTransform transform(String items, List<String> select) {
+        ResponseTransform transform = new ResponseTransform();
+        transform.setItems(items);
+        transform.setSelect(select);
+        return transform;
+    }
+
+    private static ResponseTransform.Condition condition(String pointer, String op, Object value) {
+        ResponseTransform.Condition condition = new ResponseTransform.Condition();
+        condition.setPointer(pointer);
+        condition.setOp(op);
+        condition.setValue(value);
+        return condition;
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        byte[] body = upstreamBody.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(upstreamStatus, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
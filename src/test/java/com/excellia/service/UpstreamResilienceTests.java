@@ -0,0 +1,259 @@
+package com.excellia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import com.excellia.dto.ApiConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.observation.ObservationRegistry;
+
+// Drives generated clients against a local upstream that fails on demand: scripted statuses, a default status and
+// an artificial delay per response.
+class UpstreamResilienceTests {
+
+    @TempDir
+    Path workDir;
+
+    private HttpServer server;
+    private GeneratedClientRegistry registry;
+    private String upstream;
+    private final Queue<Integer> scriptedStatuses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger defaultStatus = new AtomicInteger(200);
+    private volatile long delayMillis;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/fault", this::respond);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.start();
+        upstream = "http://127.0.0.1:" + server.getAddress().getPort() + "/fault";
+
+        GeneratedClientCache cache = new GeneratedClientCache(workDir.toString(), 10, 512);
+        OpenApiGeneratorService generatorService = new OpenApiGeneratorService(new OpenApiSpecBuilder(), cache);
+        OpenApiCodeGenLibraryService codeGenService = new OpenApiCodeGenLibraryService(cache, "lean", List.of());
+        registry = new GeneratedClientRegistry(cache, new GeneratedClientCompiler(cache), new ObjectMapper(),
+                new JdkClientHttpRequestFactory(), new JsonBodies(true, 64), 10);
+
+        ApiConfig config = new ApiConfig();
+        config.setUrl(upstream);
+        config.setOperationId("fault");
+        config.setMethods(List.of("get", "post"));
+        config.setBodies(Map.of("post", Map.of("name", "item")));
+        String specHash = generatorService.generateFromConfig(config);
+        codeGenService.generateCode(specHash);
+        registry.register(specHash);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void getIsRetriedOnServiceUnavailable() {
+        DynamicApiCallerService callerService = callerService(Map.of("excellia.resilience.retry.backoff-ms", "1"));
+        scriptedStatuses.addAll(List.of(503, 503));
+
+        Map<?, ?> response = (Map<?, ?>) callerService.callApi(request("get"));
+
+        assertThat(response.get("status")).isEqualTo(200);
+        assertThat(requests.get()).isEqualTo(3);
+    }
+
+    @Test
+    void postIsNotRetried() {
+        DynamicApiCallerService callerService = callerService(Map.of("excellia.resilience.retry.backoff-ms", "1"));
+        scriptedStatuses.add(503);
+
+        RuntimeException failure = call(callerService, "post");
+
+        assertThat(failure).isNotNull();
+        assertThat(failure).isInstanceOf(RuntimeException.class);
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    void circuitOpensFailsFastAndRecovers() throws Exception {
+        DynamicApiCallerService callerService = callerService(Map.of(
+                "excellia.resilience.retry.max-attempts", "1",
+                "excellia.resilience.circuit-breaker.window-size", "4",
+                "excellia.resilience.circuit-breaker.minimum-calls", "4",
+                "excellia.resilience.circuit-breaker.open-ms", "300",
+                "excellia.resilience.circuit-breaker.half-open-calls", "1"));
+        defaultStatus.set(500);
+        for (int i = 0; i < 4; i++) {
+            assertThat(call(callerService, "get")).isNotNull();
+        }
+        assertThat(requests.get()).isEqualTo(4);
+
+        long start = System.nanoTime();
+        RuntimeException rejected = call(callerService, "get");
+        long rejectedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(rejected).isInstanceOf(UpstreamUnavailableException.class);
+        assertThat(((UpstreamUnavailableException) rejected).getRetryAfterMillis()).isGreaterThan(0L);
+        assertThat(rejectedMillis).isLessThan(100L);
+        assertThat(requests.get()).isEqualTo(4);
+
+        defaultStatus.set(200);
+        Thread.sleep(350);
+        assertThat(call(callerService, "get")).isNull();
+        assertThat(call(callerService, "get")).isNull();
+        assertThat(requests.get()).isEqualTo(6);
+    }
+
+    @Test
+    void failedTrialCallReopensCircuit() throws Exception {
+        DynamicApiCallerService callerService = callerService(Map.of(
+                "excellia.resilience.retry.max-attempts", "1",
+                "excellia.resilience.circuit-breaker.window-size", "2",
+                "excellia.resilience.circuit-breaker.minimum-calls", "2",
+                "excellia.resilience.circuit-breaker.open-ms", "200"));
+        defaultStatus.set(503);
+        call(callerService, "get");
+        call(callerService, "get");
+        Thread.sleep(250);
+
+        assertThat(call(callerService, "get")).isNotNull();
+        assertThat(requests.get()).isEqualTo(3);
+        assertThat(call(callerService, "get")).isInstanceOf(UpstreamUnavailableException.class);
+        assertThat(requests.get()).isEqualTo(3);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenCircuit() {
+        DynamicApiCallerService callerService = callerService(Map.of(
+                "excellia.resilience.circuit-breaker.window-size", "2",
+                "excellia.resilience.circuit-breaker.minimum-calls", "2"));
+        defaultStatus.set(404);
+        for (int i = 0; i < 5; i++) {
+            RuntimeException failure = call(callerService, "get");
+            assertThat(failure).isNotNull();
+            assertThat(failure instanceof UpstreamUnavailableException).isFalse();
+        }
+        assertThat(requests.get()).isEqualTo(5);
+    }
+
+    @Test
+    void bulkheadRejectsWithoutWaiting() throws Exception {
+        DynamicApiCallerService callerService = callerService(Map.of("excellia.resilience.max-concurrent", "2"));
+        delayMillis = 1_000;
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<RuntimeException>> slowCalls = List.of(
+                executor.submit(() -> call(callerService, "get")),
+                executor.submit(() -> call(callerService, "get")));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (inFlight.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(inFlight.get()).isEqualTo(2);
+
+        long start = System.nanoTime();
+        RuntimeException rejected = call(callerService, "get");
+        long rejectedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(rejected).isInstanceOf(UpstreamUnavailableException.class);
+        assertThat(rejectedMillis).isLessThan(100L);
+        for (Future<RuntimeException> slowCall : slowCalls) {
+            assertThat(slowCall.get(10, TimeUnit.SECONDS)).isNull();
+        }
+        executor.shutdown();
+        assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    void retryBudgetCapsRetries() {
+        DynamicApiCallerService callerService = callerService(Map.of(
+                "excellia.resilience.retry.backoff-ms", "0",
+                "excellia.resilience.retry.budget-ratio", "0.5",
+                "excellia.resilience.retry.budget-min-per-second", "0",
+                "excellia.resilience.circuit-breaker.failure-rate-percent", "101"));
+        defaultStatus.set(503);
+        for (int i = 0; i < 10; i++) {
+            assertThat(call(callerService, "get")).isNotNull();
+        }
+        // 3 attempts per call without a budget; half a retry per call with it
+        assertThat(requests.get()).isEqualTo(15);
+    }
+
+    private DynamicApiCallerService callerService(Map<String, String> properties) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", new HashMap<>(properties)));
+        return new DynamicApiCallerService(registry, new UpstreamResponseCache(false, 0, 0, Set.of()),
+                ObservationRegistry.NOOP, new RequestLog(0, Set.of()), new UpstreamResilience(environment),
+                new RateLimiter(environment));
+    }
+
+    private static ApiConfig request(String method) {
+        ApiConfig request = new ApiConfig();
+        request.setOperationId("fault_" + method.toUpperCase());
+        request.setMethod(method);
+        request.setBodies(Map.of("post", Map.of("name", "item")));
+        return request;
+    }
+
+    // The failure of the call, or null when it succeeded
+    private static RuntimeException call(DynamicApiCallerService callerService, String method) {
+        try {
+            callerService.callApi(request(method));
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        inFlight.incrementAndGet();
+        try (InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            Integer scripted = scriptedStatuses.poll();
+            int status = scripted != null ? scripted : defaultStatus.get();
+            byte[] body = ("{\"status\":" + status + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+}